@@ -0,0 +1,70 @@
+package com.app.Service;
+
+import com.app.persistence.Entity.UserEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avisa a CredentialCacheListener de los cambios en las colecciones de roles y permisos.
+ *
+ * Hibernate no dispara @PostUpdate sobre UserEntity cuando solo cambia user_roles
+ * (ni sobre RoleEntity cuando solo cambia roles_permissions), así que se escuchan
+ * los eventos de colección del SessionFactory:
+ * - Colección de un usuario → se invalidan sus credenciales.
+ * - Colección de un rol → se invalida toda la caché.
+ */
+@Component
+public class CredentialCacheCollectionListener implements PostCollectionUpdateEventListener,
+        PostCollectionRecreateEventListener, PostCollectionRemoveEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CredentialCacheListener credentialCacheListener;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onChange(event);
+    }
+
+    private void onChange(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        if (owner instanceof UserEntity user) {
+            credentialCacheListener.invalidateUser(user.getUsername());
+        } else if (owner != null) {
+            credentialCacheListener.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.app.Service;
+
+import com.app.config.CredentialCache;
+import com.app.persistence.Entity.UserEntity;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de UserEntity, RoleEntity y PermissionEntity.
+ *
+ * - Cambio o borrado de un usuario (contraseña, estado de la cuenta) → se invalidan sus credenciales.
+ * - Cambio o borrado de un rol o permiso → se invalida toda la caché (afecta a muchos usuarios).
+ * - Los cambios que solo tocan user_roles o roles_permissions no disparan @PostUpdate:
+ *   los avisa CredentialCacheCollectionListener.
+ *
+ * La invalidación se hace al hacer flush y otra vez después del commit: entre ambos momentos
+ * otra petición podría haber vuelto a guardar en caché los datos anteriores al cambio.
+ *
+ * Hibernate obtiene el listener del contexto de Spring; CredentialCache se inyecta @Lazy
+ * para no crearla mientras se construye el EntityManagerFactory.
+ * Las altas no invalidan nada: un usuario nuevo no puede estar en caché.
+ */
+@Component
+public class CredentialCacheListener {
+
+    @Autowired
+    @Lazy
+    private CredentialCache credentialCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof UserEntity user) {
+            invalidateUser(user.getUsername());
+        } else {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Invalida las credenciales de un usuario ahora y de nuevo al terminar la transacción.
+     */
+    public void invalidateUser(String username) {
+        invalidateNowAndAfterCommit(() -> credentialCache.invalidate(username));
+    }
+
+    /**
+     * Invalida toda la caché ahora y de nuevo al terminar la transacción.
+     */
+    public void invalidateAll() {
+        invalidateNowAndAfterCommit(credentialCache::invalidateAll);
+    }
+
+    private void invalidateNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
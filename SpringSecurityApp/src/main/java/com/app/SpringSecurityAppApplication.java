@@ -9,6 +9,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
 
 import java.util.List;
 import java.util.Set;
@@ -20,7 +21,9 @@ public class SpringSecurityAppApplication {
 		SpringApplication.run(SpringSecurityAppApplication.class, args);
 	}
     // Inicializa datos de ejemplo (permisos, roles y usuarios) al iniciar la aplicación.
+    // Se ejecuta primero: PerfDataSeeder (perfil perf) necesita los roles ya creados.
     @Bean
+    @Order(0)
     CommandLineRunner init(UserRepository userRepository) {
         return args -> {
             // --- Creación de permisos ---
@@ -0,0 +1,65 @@
+package com.app.config;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * ================================================================
+ * BoundedEviction
+ * ================================================================
+ *
+ * Desalojo de los mapas acotados del proyecto (CredentialCache).
+ * Es el mismo helper que com.app.util.BoundedEviction de SpringSecurityJWT:
+ * los dos proyectos se construyen por separado y no comparten código.
+ *
+ * - removeIf(...): borra las entradas que ya no aportan nada (caducadas).
+ * - makeRoom(...): para cachés, donde perder una entrada solo cuesta volver a calcularla:
+ *   primero las caducadas y, si no basta, entradas arbitrarias hasta dejar libre
+ *   al menos una décima parte del máximo (así no se desaloja en cada inserción).
+ */
+final class BoundedEviction {
+
+    // Cuando el mapa está lleno se libera, como mínimo, esta fracción de entradas
+    private static final int EVICTION_DIVISOR = 10;
+
+    private BoundedEviction() {
+    }
+
+    /**
+     * Borra las entradas que cumplen la condición.
+     *
+     * @return entradas borradas
+     */
+    static <V> int removeIf(Map<?, V> entries, Predicate<? super V> condition) {
+        int removed = 0;
+        Iterator<V> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (condition.test(iterator.next())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Libera espacio en un mapa lleno: primero las entradas caducadas y después entradas arbitrarias.
+     *
+     * @param expired indica si una entrada ya caducó
+     * @return entradas borradas
+     */
+    static <V> int makeRoom(Map<?, V> entries, int maxEntries, Predicate<? super V> expired) {
+        int removed = removeIf(entries, expired);
+
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / EVICTION_DIVISOR);
+        Iterator<V> iterator = entries.values().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            removed++;
+            toRemove--;
+        }
+        return removed;
+    }
+}
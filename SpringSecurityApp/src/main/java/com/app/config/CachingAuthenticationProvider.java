@@ -0,0 +1,61 @@
+package com.app.config;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * ================================================================
+ * CachingAuthenticationProvider
+ * ================================================================
+ *
+ * AuthenticationProvider que consulta CredentialCache antes de delegar en el DaoAuthenticationProvider.
+ *
+ * Flujo:
+ * 1. Acierto en caché → se devuelve un Authentication nuevo con el mismo principal (UserDetails)
+ *    y las authorities guardadas, sin consultar la DB ni calcular BCrypt.
+ * 2. Fallo → DaoAuthenticationProvider valida como siempre (usuario, estado de la cuenta y contraseña).
+ * 3. Si la validación es correcta se guardan las credenciales; si no, la excepción sale tal cual.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final CredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, CredentialCache credentialCache) {
+        this.delegate = delegate;
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || !(credentials instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        // --- 1. Caché ---
+        CredentialCache.CachedCredential cached = credentialCache.get(username, password);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.principal(), null, cached.authorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        // --- 2 y 3. Validación completa y alta en caché ---
+        // La contraseña se copia antes: ProviderManager la borra del token al terminar
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            credentialCache.put(username, password, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
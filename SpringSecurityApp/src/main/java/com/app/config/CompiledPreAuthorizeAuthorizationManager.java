@@ -0,0 +1,230 @@
+package com.app.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ================================================================
+ * CompiledPreAuthorizeAuthorizationManager
+ * ================================================================
+ *
+ * AuthorizationManager de @PreAuthorize que traduce las expresiones a comprobaciones compiladas
+ * en lugar de evaluar SpEL en cada llamada.
+ *
+ * Funcionamiento:
+ * 1. Al arrancar (precompile) se recorren los métodos públicos de los beans de la aplicación
+ *    y se resuelve su @PreAuthorize (el del método manda sobre el de la clase).
+ * 2. Cada expresión distinta se traduce una sola vez:
+ *      permitAll(), denyAll(), isAuthenticated(), isAnonymous(),
+ *      hasAuthority('X'), hasAnyAuthority('X','Y'), hasRole('X'), hasAnyRole('X','Y')
+ *    combinadas con "and" / "or" (sin paréntesis ni negaciones).
+ * 3. Cualquier otra expresión (parámetros #x, beans @x, paréntesis, "not"...) se evalúa con SpEL
+ *    mediante el PreAuthorizeAuthorizationManager de Spring: el comportamiento no cambia.
+ * 4. En cada llamada: un get del mapa (Method, clase) y un recorrido de las authorities del usuario,
+ *    sin crear objetos (las decisiones son constantes).
+ *
+ * Con security.method.compiled-expressions=false todas las expresiones van por SpEL.
+ */
+public class CompiledPreAuthorizeAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // hasAuthority('READ'), hasAnyRole('ADMIN', 'USER'), permitAll()...
+    private static final Pattern CALL = Pattern.compile("(\\w+)\\(\\s*((?:'[^']*'\\s*(?:,\\s*'[^']*'\\s*)*)?)\\)");
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    // Sin @PreAuthorize: no hay nada que comprobar (null = Spring deja pasar la llamada)
+    private static final Rule NO_RULE = (authentication) -> null;
+
+    // Marca de las expresiones que no se traducen: se evalúan con SpEL
+    private static final Rule SPEL = (authentication) -> null;
+
+    private final boolean enabled;
+    private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+
+    // Regla ya resuelta por método y clase destino
+    private final Map<MethodKey, Rule> rules = new ConcurrentHashMap<>();
+    // Regla compilada por expresión (las no traducibles se guardan como SPEL)
+    private final Map<String, Rule> compiled = new ConcurrentHashMap<>();
+
+    public CompiledPreAuthorizeAuthorizationManager(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        if (!enabled) {
+            return spel.check(authentication, invocation);
+        }
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : invocation.getMethod().getDeclaringClass();
+        Rule rule = rules.computeIfAbsent(new MethodKey(invocation.getMethod(), targetClass), this::resolve);
+        if (rule == SPEL) {
+            return spel.check(authentication, invocation);
+        }
+        return rule.check(authentication);
+    }
+
+    /**
+     * Resuelve y compila por adelantado las reglas de todos los métodos públicos de una clase.
+     *
+     * @return número de métodos con @PreAuthorize compilado (sin contar los que usan SpEL)
+     */
+    public int precompile(Class<?> targetClass) {
+        int count = 0;
+        for (Method method : targetClass.getMethods()) {
+            if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Rule rule = rules.computeIfAbsent(new MethodKey(method, targetClass), this::resolve);
+            if (rule != NO_RULE && rule != SPEL) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * true si la expresión se puede compilar (si no, se evalúa con SpEL).
+     */
+    public boolean isCompiled(String expression) {
+        return compile(expression) != SPEL;
+    }
+
+    // @PreAuthorize del método (o de la clase) → regla
+    private Rule resolve(MethodKey key) {
+        Method specific = AopUtils.getMostSpecificMethod(key.method(), key.targetClass());
+        PreAuthorize annotation = AnnotatedElementUtils.findMergedAnnotation(specific, PreAuthorize.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(key.targetClass(), PreAuthorize.class);
+        }
+        if (annotation == null) {
+            return NO_RULE;
+        }
+        return compile(annotation.value());
+    }
+
+    private Rule compile(String expression) {
+        return compiled.computeIfAbsent(expression.trim(), CompiledPreAuthorizeAuthorizationManager::translate);
+    }
+
+    // "A or B and C" → OR de ANDs (en SpEL "and" tiene más prioridad que "or").
+    // Un término con paréntesis de agrupación no encaja en CALL y manda toda la expresión a SpEL
+    private static Rule translate(String expression) {
+        List<Rule[]> anyOf = new ArrayList<>();
+        for (String disjunct : expression.split("\\s+or\\s+")) {
+            String[] terms = disjunct.split("\\s+and\\s+");
+            Rule[] allOf = new Rule[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                allOf[i] = term(terms[i].trim());
+                if (allOf[i] == null) {
+                    return SPEL;
+                }
+            }
+            anyOf.add(allOf);
+        }
+        if (anyOf.size() == 1 && anyOf.get(0).length == 1) {
+            return anyOf.get(0)[0];
+        }
+        Rule[][] table = anyOf.toArray(new Rule[0][]);
+        return (authentication) -> {
+            for (Rule[] allOf : table) {
+                boolean granted = true;
+                for (Rule rule : allOf) {
+                    if (!rule.check(authentication).isGranted()) {
+                        granted = false;
+                        break;
+                    }
+                }
+                if (granted) {
+                    return GRANTED;
+                }
+            }
+            return DENIED;
+        };
+    }
+
+    // Una llamada; null si no se sabe traducir
+    private static Rule term(String term) {
+        Matcher call = CALL.matcher(term);
+        if (!call.matches()) {
+            return null;
+        }
+        List<String> args = new ArrayList<>();
+        Matcher quoted = QUOTED.matcher(call.group(2));
+        while (quoted.find()) {
+            args.add(quoted.group(1));
+        }
+        return switch (call.group(1)) {
+            case "permitAll" -> args.isEmpty() ? (authentication) -> GRANTED : null;
+            case "denyAll" -> args.isEmpty() ? (authentication) -> DENIED : null;
+            case "isAuthenticated" -> args.isEmpty()
+                    ? (authentication) -> TRUST_RESOLVER.isAuthenticated(authentication.get()) ? GRANTED : DENIED
+                    : null;
+            case "isAnonymous" -> args.isEmpty()
+                    ? (authentication) -> TRUST_RESOLVER.isAnonymous(authentication.get()) ? GRANTED : DENIED
+                    : null;
+            case "hasAuthority", "hasAnyAuthority" -> authorities(call.group(1), args, false);
+            case "hasRole", "hasAnyRole" -> authorities(call.group(1), args, true);
+            default -> null;
+        };
+    }
+
+    // Se concede si el usuario tiene alguna de las authorities (Set inmutable, búsqueda sin crear objetos)
+    private static Rule authorities(String function, List<String> args, boolean roles) {
+        if (args.isEmpty() || !function.startsWith("hasAny") && args.size() != 1) {
+            return null;
+        }
+        Set<String> required = Set.copyOf(roles
+                ? args.stream().map(role -> role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role).toList()
+                : args);
+        return (authentication) -> {
+            Authentication current = authentication.get();
+            if (current == null) {
+                return DENIED;
+            }
+            for (GrantedAuthority authority : current.getAuthorities()) {
+                // Set.copyOf no admite contains(null); SpEL simplemente no la cuenta
+                String name = authority.getAuthority();
+                if (name != null && required.contains(name)) {
+                    return GRANTED;
+                }
+            }
+            return DENIED;
+        };
+    }
+
+    // Comprobación compilada; la autenticación se pide solo si la regla la necesita
+    @FunctionalInterface
+    private interface Rule {
+        AuthorizationDecision check(Supplier<Authentication> authentication);
+    }
+
+    private record MethodKey(Method method, Class<?> targetClass) {
+    }
+}
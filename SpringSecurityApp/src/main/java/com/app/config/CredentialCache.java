@@ -0,0 +1,199 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ================================================================
+ * CredentialCache
+ * ================================================================
+ *
+ * Caché acotada y con TTL corto de credenciales HTTP Basic ya validadas.
+ *
+ * Con HTTP Basic y sesión STATELESS cada petición vuelve a cargar el usuario de la DB
+ * y a calcular BCrypt (decenas de ms). Un cliente que repite las mismas credenciales
+ * pasa a costar un HMAC y una búsqueda en un mapa.
+ *
+ * Funcionamiento:
+ * 1. La clave es el HMAC-SHA256 de "username:password" (lo que lleva la cabecera Basic)
+ *    con una clave aleatoria generada al arrancar: la contraseña nunca se guarda,
+ *    y sin la clave del proceso el HMAC no sirve para probar contraseñas offline.
+ * 2. Solo se guardan credenciales correctas; un fallo siempre pasa por BCrypt.
+ * 3. Cada entrada caduca a los ttl-ms. Si la caché se llena, primero se eliminan
+ *    las caducadas y, si no basta, una fracción arbitraria de las restantes.
+ * 4. Cada entrada guarda el nombre canónico del usuario (el de la DB, en minúsculas): con una
+ *    collation que no distingue mayúsculas, un login como "DUZZ" también se invalida al cambiar "Duzz".
+ * 5. Se invalida al cambiar la contraseña o los roles de un usuario (CredentialCacheListener).
+ */
+@Component
+public class CredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // Clave aleatoria del proceso: al reiniciar, todas las entradas anteriores dejan de coincidir
+    private final SecretKeySpec secretKey;
+
+    // Mac no es seguro entre hilos: se clona este prototipo (ya inicializado con la clave) en cada búsqueda
+    private final Mac hmacPrototype;
+
+    private final Map<CredentialKey, CachedCredential> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CredentialCache(@Value("${security.basic-cache.max-entries:10000}") int maxEntries,
+                           @Value("${security.basic-cache.ttl-ms:30000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.hmacPrototype = hmac(secretKey);
+    }
+
+    /**
+     * Devuelve el usuario ya validado para estas credenciales, o null si no está o caducó.
+     */
+    public CachedCredential get(String username, String password) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        CredentialKey key = key(username, password);
+        CachedCredential cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            if (entries.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    /**
+     * Guarda unas credenciales que acaban de pasar la validación completa (DB + BCrypt).
+     *
+     * @param username username tal y como lo escribió el cliente (forma parte de la clave)
+     * @param password contraseña tal y como la escribió el cliente
+     * @param authenticated resultado de la validación: su nombre y su principal son los que se guardan
+     */
+    public void put(String username, String password, Authentication authenticated) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            evictions.add(BoundedEviction.makeRoom(entries, maxEntries, entry -> entry.expiresAtMillis() <= now));
+        }
+        entries.put(key(username, password), new CachedCredential(canonical(authenticated.getName()),
+                authenticated.getPrincipal(), List.copyOf(authenticated.getAuthorities()), now + ttlMillis));
+    }
+
+    /**
+     * Invalida todas las credenciales de un usuario (cambio de contraseña, roles o estado de la cuenta).
+     * Recorre la caché: es una operación rara y la caché está acotada.
+     */
+    public void invalidate(String username) {
+        String canonical = canonical(username);
+        invalidations.add(BoundedEviction.removeIf(entries, entry -> entry.username().equals(canonical)));
+    }
+
+    /**
+     * Invalida todas las credenciales, por ejemplo cuando cambian los permisos de un rol.
+     */
+    public void invalidateAll() {
+        int size = entries.size();
+        entries.clear();
+        invalidations.add(size);
+    }
+
+    // HMAC de "username:password" guardado como 4 longs para no crear Strings en cada búsqueda
+    private CredentialKey key(String username, String password) {
+        Mac mac = newMac();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) ':');
+        ByteBuffer hash = ByteBuffer.wrap(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        return new CredentialKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    // La collation de "users" no distingue mayúsculas: "DUZZ" y "Duzz" son la misma fila
+    private static String canonical(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) hmacPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return hmac(secretKey);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Usuario ya autenticado con unas credenciales concretas.
+     *
+     * @param username nombre canónico del usuario (en minúsculas), para invalidar
+     * @param principal principal devuelto por la validación completa (UserDetails, sin contraseña)
+     * @param authorities roles y permisos listos para el SecurityContext
+     * @param expiresAtMillis instante en que hay que volver a validar con BCrypt
+     */
+    public record CachedCredential(String username, Object principal, List<GrantedAuthority> authorities,
+                                   long expiresAtMillis) {
+    }
+
+    private record CredentialKey(long a, long b, long c, long d) {
+    }
+
+    private static Mac hmac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " no disponible en la JVM", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+/**
+ * ================================================================
+ * MethodSecurityConfig
+ * ================================================================
+ *
+ * Sustituye el interceptor de @PreAuthorize de Spring por uno que usa
+ * CompiledPreAuthorizeAuthorizationManager (SecurityConfig tiene @EnableMethodSecurity(prePostEnabled = false)).
+ *
+ * - Las expresiones se traducen al arrancar: se recorren los controladores y servicios de la aplicación.
+ * - Las que no se pueden traducir se siguen evaluando con SpEL.
+ * - @PostAuthorize, @PreFilter y @PostFilter quedan desactivados: la aplicación no los usa.
+ *
+ * Los beans son static para que el Advisor se cree antes que el resto de beans
+ * (si no, los primeros beans no quedarían interceptados).
+ */
+@Configuration
+public class MethodSecurityConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static CompiledPreAuthorizeAuthorizationManager compiledPreAuthorizeAuthorizationManager(
+            @Value("${security.method.compiled-expressions:true}") boolean enabled) {
+        return new CompiledPreAuthorizeAuthorizationManager(enabled);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationMethodInterceptor(CompiledPreAuthorizeAuthorizationManager manager) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(manager);
+    }
+
+    // Al terminar de crear los singletons se compilan las reglas de controladores y servicios
+    @Bean
+    static SmartInitializingSingleton precompilePreAuthorizeExpressions(ListableBeanFactory beanFactory,
+                                                                        CompiledPreAuthorizeAuthorizationManager manager) {
+        return () -> {
+            for (String name : beanFactory.getBeanNamesForAnnotation(Controller.class)) {
+                precompile(beanFactory, name, manager);
+            }
+            for (String name : beanFactory.getBeanNamesForAnnotation(Service.class)) {
+                precompile(beanFactory, name, manager);
+            }
+        };
+    }
+
+    private static void precompile(ListableBeanFactory beanFactory, String name, CompiledPreAuthorizeAuthorizationManager manager) {
+        Object bean = beanFactory.getBean(name);
+        manager.precompile(ClassUtils.getUserClass(AopUtils.getTargetClass(bean)));
+    }
+}
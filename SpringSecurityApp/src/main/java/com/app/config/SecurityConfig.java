@@ -27,8 +27,13 @@ import java.util.ArrayList;
 import java.util.List;
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity // Permite usar anotaciones de seguridad como @PreAuthorize en controladores y servicios.
+// Permite usar anotaciones de seguridad como @PreAuthorize en controladores y servicios.
+// El interceptor de @PreAuthorize lo registra MethodSecurityConfig, con las expresiones ya compiladas.
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfig {
+
+    @Autowired
+    private CredentialCache credentialCache;
     /*
      * =============================================================
      * EJEMPLO COMENTADO DE CONFIGURACIÓN DETALLADA DE SEGURIDAD
@@ -119,13 +124,16 @@ public class SecurityConfig {
      *
      * Conecta el servicio de usuarios con la lógica de autenticación
      * y valida credenciales desde la base de datos.
+     *
+     * Va envuelto en CachingAuthenticationProvider: con HTTP Basic cada petición
+     * trae las credenciales, y las ya validadas no vuelven a pasar por la DB ni por BCrypt.
      */
     @Bean
     public AuthenticationProvider authenticationProvider(UserDetailServiceimpl userDetailServiceimpl) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setPasswordEncoder(passwordEncoder()); // Codificador de contraseñas obligatorio.
         provider.setUserDetailsService(userDetailServiceimpl); // Servicio personalizado de usuarios.
-        return provider;
+        return new CachingAuthenticationProvider(provider, credentialCache); // Caché de credenciales validadas.
     }
 
     /*
@@ -1,5 +1,6 @@
 package com.app.persistence.Entity;
 
+import com.app.Service.CredentialCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,6 +11,7 @@ import lombok.*;
 @NoArgsConstructor
 @Entity
 @Table(name = "permissions")
+@EntityListeners(CredentialCacheListener.class) // Invalida CredentialCache al editar roles/permisos
 public class PermissionEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
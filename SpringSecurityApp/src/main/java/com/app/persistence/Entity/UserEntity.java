@@ -1,5 +1,6 @@
 package com.app.persistence.Entity;
 
+import com.app.Service.CredentialCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,6 +14,7 @@ import java.util.Set;
 @NoArgsConstructor
 @Entity
 @Table(name = "users")
+@EntityListeners(CredentialCacheListener.class) // Invalida CredentialCache al editar usuarios
 public class UserEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,103 @@
+package com.app.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CachingAuthenticationProvider: BCrypt solo en la primera petición de unas credenciales correctas.
+ */
+class CachingAuthenticationProviderTests {
+
+    private static final int ITERATIONS = 1_000;
+
+    private final AtomicInteger bcryptCalls = new AtomicInteger();
+    private CredentialCache cache;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        PasswordEncoder countingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                bcryptCalls.incrementAndGet();
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setPasswordEncoder(countingEncoder);
+        dao.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername("Duzz")
+                .password(bcrypt.encode("1234"))
+                .authorities("ROLE_DEVELOPER", "READ", "REFACTOR")
+                .build()));
+
+        cache = new CredentialCache(100, 60_000);
+        provider = new CachingAuthenticationProvider(dao, cache);
+    }
+
+    @Test
+    void repeatedCredentialsSkipBcrypt() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Authentication result = provider.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated("Duzz", "1234"));
+            assertTrue(result.isAuthenticated());
+            assertEquals(3, result.getAuthorities().size());
+            // Mismo tipo de principal con y sin caché
+            assertInstanceOf(UserDetails.class, result.getPrincipal());
+        }
+
+        assertEquals(1, bcryptCalls.get());
+        assertEquals(ITERATIONS - 1, cache.getHitCount());
+    }
+
+    @Test
+    void invalidationMatchesCanonicalUsername() {
+        // La búsqueda del usuario no distingue mayúsculas (como la collation de MySQL)
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("DUZZ", "1234"));
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("Duzz", "1234"));
+        assertEquals(2, cache.size());
+
+        cache.invalidate("Duzz");
+
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getInvalidationCount());
+    }
+
+    @Test
+    void wrongPasswordIsNeverCachedAndInvalidationForcesBcrypt() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated("Duzz", "wrong")));
+        }
+        assertEquals(2, bcryptCalls.get());
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("Duzz", "1234"));
+        cache.invalidate("Duzz");
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("Duzz", "1234"));
+
+        assertEquals(4, bcryptCalls.get());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.config;
+
+import com.app.controller.TestAuthController;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba que las expresiones compiladas de @PreAuthorize deciden igual que SpEL
+ * sobre los métodos de TestAuthController.
+ *
+ * El coste por llamada de ambos caminos se mide en perf/PreAuthorizeOverheadTests (mvn -Pperf test).
+ */
+class CompiledPreAuthorizeAuthorizationManagerTests {
+
+    private final TestAuthController controller = new TestAuthController();
+    private final Authentication developer = UsernamePasswordAuthenticationToken.authenticated(
+            "Duzz", null, AuthorityUtils.createAuthorityList("ROLE_DEVELOPER", "CREATE", "READ", "UPDATE", "DELETE", "REFACTOR"));
+    private final Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+            "Paul", null, AuthorityUtils.createAuthorityList("ROLE_USER", "READ"));
+
+    @Test
+    void compiledDecidesLikeSpel() throws Exception {
+        CompiledPreAuthorizeAuthorizationManager compiled = new CompiledPreAuthorizeAuthorizationManager(true);
+        // helloGet y helloPatch por su anotación; post, put y delete por el denyAll() de la clase
+        assertEquals(5, compiled.precompile(TestAuthController.class));
+        PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+
+        // Una authority sin nombre (getAuthority() == null) no se cuenta, como en SpEL
+        List<GrantedAuthority> withNull = new ArrayList<>(AuthorityUtils.createAuthorityList("ROLE_USER"));
+        withNull.add(0, () -> null);
+        Authentication nullAuthority = UsernamePasswordAuthenticationToken.authenticated("Noe", null, withNull);
+
+        for (String name : List.of("helloGet", "helloPost", "helloPut", "helloDelete", "helloPatch")) {
+            MethodInvocation invocation = invocation(name);
+            for (Authentication authentication : List.of(developer, user, nullAuthority)) {
+                Supplier<Authentication> supplier = () -> authentication;
+                assertEquals(spel.check(supplier, invocation).isGranted(), compiled.check(supplier, invocation).isGranted(),
+                        name + " como " + authentication.getName());
+            }
+        }
+
+        assertTrue(compiled.isCompiled("hasAuthority('READ') or hasRole('ADMIN') and isAuthenticated()"));
+        assertFalse(compiled.isCompiled("hasPermission(#id, 'READ')"));
+        assertFalse(compiled.isCompiled("(hasRole('ADMIN') or hasRole('USER')) and isAuthenticated()"));
+    }
+
+    private MethodInvocation invocation(String name) throws NoSuchMethodException {
+        return new SimpleMethodInvocation(controller, TestAuthController.class.getMethod(name));
+    }
+}
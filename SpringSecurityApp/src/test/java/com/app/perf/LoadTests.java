@@ -0,0 +1,255 @@
+package com.app.perf;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ================================================
+ * LoadTests
+ * ================================================
+ *
+ * Prueba de carga de extremo a extremo con el perfil "perf" (H2 + PerfDataSeeder).
+ * Solo se ejecuta con: mvn -Pperf test
+ *
+ * Flujo:
+ * 1. Cada hilo usa un usuario DEVELOPER de los datos de carga con HTTP Basic
+ *    (cada petición valida la contraseña con BCrypt).
+ * 2. Calentamiento (perf.load.warmup-seconds) sin medir.
+ * 3. Durante perf.load.duration-seconds cada hilo elige una operación según perf.load.mix
+ *    (GET /auth/get, PATCH /auth/patch) y mide su latencia.
+ * 4. Se imprime por endpoint: peticiones, errores, throughput y latencia p50/p99/p999.
+ *
+ * Cualquier respuesta 5xx hace fallar la prueba.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("perf")
+class LoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${perf.load.concurrency:32}")
+    private int concurrency;
+
+    @Value("${perf.load.warmup-seconds:5}")
+    private int warmupSeconds;
+
+    @Value("${perf.load.duration-seconds:30}")
+    private int durationSeconds;
+
+    @Value("${perf.load.mix:get:50,patch:50}")
+    private String mix;
+
+    @Value("${perf.seed.users:10000}")
+    private int seededUsers;
+
+    @Value("${perf.seed.password:perf-password}")
+    private String seededPassword;
+
+    @Value("${perf.seed.roles:DEVELOPER,ADMIN,USER,INVITED}")
+    private String seededRoles;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        List<Operation> operations = parseMix(mix);
+        List<String> developers = developerUsernames();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<Operation, Samples>>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                String username = developers.get(i % developers.size());
+                workers.add(executor.submit(() -> runWorker(username, operations)));
+            }
+
+            Map<Operation, Samples> total = new LinkedHashMap<>();
+            for (Future<Map<Operation, Samples>> worker : workers) {
+                worker.get().forEach((operation, samples) ->
+                        total.computeIfAbsent(operation, key -> new Samples()).addAll(samples));
+            }
+
+            report(total);
+
+            long serverErrors = total.values().stream().mapToLong(samples -> samples.serverErrors).sum();
+            assertEquals(0, serverErrors, "respuestas 5xx");
+            assertTrue(total.values().stream().mapToInt(Samples::size).sum() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Un hilo de carga: calentamiento y medida
+    private Map<Operation, Samples> runWorker(String username, List<Operation> operations) throws Exception {
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + seededPassword).getBytes(StandardCharsets.UTF_8));
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        while (System.nanoTime() < warmupEnd) {
+            execute(pick(operations), authorization);
+        }
+
+        Map<Operation, Samples> samples = new LinkedHashMap<>();
+        long end = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        while (System.nanoTime() < end) {
+            Operation operation = pick(operations);
+            long start = System.nanoTime();
+            int status = execute(operation, authorization);
+            samples.computeIfAbsent(operation, key -> new Samples()).add(System.nanoTime() - start, status);
+        }
+        return samples;
+    }
+
+    private int execute(Operation operation, String authorization) throws Exception {
+        return switch (operation.endpoint()) {
+            case "get" -> send(authorized("/auth/get", authorization).GET().build()).statusCode();
+            case "patch" -> send(authorized("/auth/patch", authorization)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build()).statusCode();
+            default -> throw new IllegalArgumentException("Operación desconocida: " + operation.endpoint());
+        };
+    }
+
+    private HttpRequest.Builder authorized(String path, String authorization) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Usuarios de PerfDataSeeder con rol DEVELOPER (tienen READ y REFACTOR)
+    private List<String> developerUsernames() {
+        List<String> roles = Arrays.stream(seededRoles.split(",")).map(String::trim).toList();
+        int developerIndex = roles.indexOf("DEVELOPER");
+        if (developerIndex < 0) {
+            throw new IllegalStateException("perf.seed.roles debe incluir DEVELOPER");
+        }
+        List<String> usernames = new ArrayList<>();
+        for (int i = developerIndex; i < seededUsers && usernames.size() < concurrency; i += roles.size()) {
+            usernames.add(PerfDataSeeder.USERNAME_PREFIX + i);
+        }
+        return usernames;
+    }
+
+    private static List<Operation> parseMix(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        int cumulative = 0;
+        for (String entry : mix.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            cumulative += Integer.parseInt(entry.substring(separator + 1).trim());
+            operations.add(new Operation(entry.substring(0, separator).trim(), cumulative));
+        }
+        return operations;
+    }
+
+    private static Operation pick(List<Operation> operations) {
+        int total = operations.get(operations.size() - 1).cumulativeWeight();
+        int value = ThreadLocalRandom.current().nextInt(total);
+        for (Operation operation : operations) {
+            if (value < operation.cumulativeWeight()) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private void report(Map<Operation, Samples> total) {
+        System.out.printf("%nCarga: %d hilos, %d s medidos, mezcla %s%n", concurrency, durationSeconds, mix);
+        System.out.printf("%-10s %9s %8s %10s %10s %10s %10s%n",
+                "endpoint", "peticiones", "errores", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        total.forEach((operation, samples) -> {
+            long[] latencies = samples.sortedLatencies();
+            System.out.printf("%-10s %9d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    operation.endpoint(), latencies.length, samples.errors,
+                    latencies.length / (double) durationSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+        });
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Operation(String endpoint, int cumulativeWeight) {
+    }
+
+    // Latencias de un endpoint; cada hilo tiene las suyas y se juntan al final
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private long serverErrors;
+
+        void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (status >= 400) {
+                errors++;
+            }
+            if (status >= 500) {
+                serverErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], 200);
+            }
+            errors += other.errors;
+            serverErrors += other.serverErrors;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.jmh;
+
+import com.app.util.JWTUtils;
+import com.app.util.JwtKeyRing;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * Objetos de la aplicación montados a mano, sin levantar el contexto de Spring.
+ * Usan los mismos valores que application.properties.
+ */
+final class Fixtures {
+
+    static final String SECRET = "3629555f0a4fd3c7916a247b548671c078717483a2e6d0a524daeb40d5b622b2";
+    static final String USER_GENERATOR = "DUZZJWT-BACKEND";
+
+    // Mismo usuario y authorities que "Duzz" en los datos de ejemplo
+    static final String USERNAME = "Duzz";
+    static final String AUTHORITIES = "ROLE_DEVELOPER,CREATE,READ,UPDATE,DELETE,REFACTOR";
+
+    private Fixtures() {
+    }
+
+    /**
+     * JWTUtils con la clave y el emisor de application.properties.
+     *
+     * @param authoritiesFormat "string" o "bitmask" (security.jwt.authorities.format)
+     */
+    static JWTUtils jwtUtils(String authoritiesFormat) {
+        JWTUtils jwtUtils = new JWTUtils();
+        setField(jwtUtils, "keyRing", new JwtKeyRing(SECRET, "k1", "", 1800000));
+        setField(jwtUtils, "userGenerator", USER_GENERATOR);
+        setField(jwtUtils, "authoritiesFormat", authoritiesFormat);
+        return jwtUtils;
+    }
+
+    static Authentication authentication() {
+        return new UsernamePasswordAuthenticationToken(USERNAME, null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList(AUTHORITIES));
+    }
+
+    // JWTUtils recibe sus dependencias por @Autowired/@Value en campos privados
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo asignar " + name, e);
+        }
+    }
+}
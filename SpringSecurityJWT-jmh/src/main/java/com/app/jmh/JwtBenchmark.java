@@ -0,0 +1,106 @@
+package com.app.jmh;
+
+import com.app.util.AuthorityRegistry;
+import com.app.util.JWTUtils;
+import com.app.util.TokenValidationResult;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================================
+ * JwtBenchmark
+ * ================================================================
+ *
+ * Coste de crear y validar tokens y de convertir el claim de authorities.
+ *
+ * - createToken / validateToken / verify: JWTUtils con el claim en texto o en máscara.
+ * - authorities*: el claim "ROLE_DEVELOPER,READ,..." convertido con AuthorityUtils
+ *   (lo que hacía el filtro antes) frente a AuthorityRegistry (listas compartidas).
+ * - Las variantes *Contended repiten la medida con un hilo por núcleo sobre el mismo estado,
+ *   para ver la contención en las cachés compartidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtBenchmark {
+
+    @Param({"string", "bitmask"})
+    public String authoritiesFormat;
+
+    private JWTUtils jwtUtils;
+    private AuthorityRegistry authorityRegistry;
+    private Authentication authentication;
+    private String token;
+    private DecodedJWT decodedJWT;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = Fixtures.jwtUtils(authoritiesFormat);
+        authorityRegistry = new AuthorityRegistry();
+        authentication = Fixtures.authentication();
+        token = jwtUtils.createToken(authentication);
+        decodedJWT = jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtUtils.createToken(authentication);
+    }
+
+    @Benchmark
+    public DecodedJWT validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public TokenValidationResult verify() {
+        return jwtUtils.verify(token);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public TokenValidationResult verifyContended() {
+        return jwtUtils.verify(token);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> extractAuthorities() {
+        return jwtUtils.extractAuthorities(decodedJWT, authorityRegistry);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> authoritiesFromClaimUncached() {
+        return AuthorityUtils.commaSeparatedStringToAuthorityList(Fixtures.AUTHORITIES);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> authoritiesFromClaimRegistry() {
+        return authorityRegistry.fromClaim(Fixtures.AUTHORITIES);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<GrantedAuthority> authoritiesFromClaimRegistryContended() {
+        return authorityRegistry.fromClaim(Fixtures.AUTHORITIES);
+    }
+}
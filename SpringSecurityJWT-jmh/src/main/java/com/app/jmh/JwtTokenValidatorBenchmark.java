@@ -0,0 +1,100 @@
+package com.app.jmh;
+
+import com.app.config.Filter.JwtTokenValidator;
+import com.app.util.AuthorityRegistry;
+import com.app.util.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================================
+ * JwtTokenValidatorBenchmark
+ * ================================================================
+ *
+ * Coste completo del filtro JWT por petición (doFilter → doFilterInternal),
+ * sin caché de tokens verificados y con ella, con uno y con todos los hilos.
+ *
+ * El filtro y la caché se comparten entre hilos (como en Tomcat);
+ * la petición y la respuesta son de cada hilo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtTokenValidatorBenchmark {
+
+    private JwtTokenValidator withoutCache;
+    private JwtTokenValidator withCache;
+    private String bearerToken;
+
+    @Setup
+    public void setUp() {
+        var jwtUtils = Fixtures.jwtUtils("string");
+        bearerToken = "Bearer " + jwtUtils.createToken(Fixtures.authentication());
+        withoutCache = new JwtTokenValidator(jwtUtils);
+        withCache = new JwtTokenValidator(jwtUtils, new VerifiedTokenCache(10_000), new AuthorityRegistry());
+    }
+
+    // Petición y respuesta propias de cada hilo
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(JwtTokenValidatorBenchmark benchmark) {
+            request = new MockHttpServletRequest("PATCH", "/method/patch");
+            request.addHeader(HttpHeaders.PROXY_AUTHORIZATION, benchmark.bearerToken);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public Object filterWithoutCache(Exchange exchange) throws Exception {
+        return filter(withoutCache, exchange);
+    }
+
+    @Benchmark
+    public Object filterWithCache(Exchange exchange) throws Exception {
+        return filter(withCache, exchange);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object filterWithoutCacheContended(Exchange exchange) throws Exception {
+        return filter(withoutCache, exchange);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object filterWithCacheContended(Exchange exchange) throws Exception {
+        return filter(withCache, exchange);
+    }
+
+    private Object filter(JwtTokenValidator validator, Exchange exchange) throws Exception {
+        exchange.response.reset();
+        validator.doFilter(exchange.request, exchange.response, new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
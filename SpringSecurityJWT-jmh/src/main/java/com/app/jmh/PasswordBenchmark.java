@@ -0,0 +1,78 @@
+package com.app.jmh;
+
+import com.app.config.Password.BoundedPasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================================
+ * PasswordBenchmark
+ * ================================================================
+ *
+ * Coste de BCryptPasswordEncoder.matches según el strength, directo y a través
+ * de BoundedPasswordEncoder (pool de hashing con cola acotada).
+ *
+ * La variante *Contended lanza un hilo por núcleo contra el pool: muestra cuánto
+ * espera cada login cuando el pool está saturado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "1234";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private BoundedPasswordEncoder bounded;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        hash = bcrypt.encode(PASSWORD);
+        int threads = Runtime.getRuntime().availableProcessors();
+        // Cola suficiente para no rechazar peticiones durante la medida
+        bounded = new BoundedPasswordEncoder(bcrypt, threads, 1024, 60_000, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.shutdown();
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return bcrypt.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean boundedMatches() {
+        return bounded.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean boundedMatchesContended() {
+        return bounded.matches(PASSWORD, hash);
+    }
+}
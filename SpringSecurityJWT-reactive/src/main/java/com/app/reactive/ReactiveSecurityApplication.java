@@ -0,0 +1,18 @@
+package com.app.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Variante reactiva de SpringSecurityJWT: WebFlux (Netty) + R2DBC.
+ *
+ * Reutiliza de SpringSecurityJWT los componentes que no bloquean (JWTUtils, JwtKeyRing,
+ * VerifiedTokenCache, AuthorityRegistry), por eso también se escanea com.app.util.
+ */
+@SpringBootApplication(scanBasePackages = {"com.app.reactive", "com.app.util"})
+public class ReactiveSecurityApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveSecurityApplication.class, args);
+	}
+}
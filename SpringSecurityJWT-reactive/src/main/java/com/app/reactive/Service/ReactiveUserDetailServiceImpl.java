@@ -0,0 +1,229 @@
+package com.app.reactive.Service;
+
+import com.app.controller.DTO.AuthCreateUserRequest;
+import com.app.controller.DTO.AuthLoginRequest;
+import com.app.controller.DTO.AuthResponse;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.reactive.config.Password.ReactivePasswordHasher;
+import com.app.reactive.persistence.Entity.UserRow;
+import com.app.reactive.persistence.Projection.RolePermissionRow;
+import com.app.reactive.persistence.Projection.UserCredentialsRow;
+import com.app.reactive.persistence.Repository.ReactiveRoleRepository;
+import com.app.reactive.persistence.Repository.ReactiveUserRepository;
+import com.app.util.AuthorityRegistry;
+import com.app.util.JWTUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ================================================================
+ * ReactiveUserDetailServiceImpl
+ * ================================================================
+ *
+ * Equivalente reactivo de UserDetailServiceimpl: carga usuarios, valida credenciales,
+ * da de alta usuarios y genera el JWT, sin bloquear ningún hilo.
+ *
+ * - Las consultas van por R2DBC (ReactiveUserRepository, ReactiveRoleRepository).
+ * - BCrypt se ejecuta en el scheduler acotado de ReactivePasswordHasher, nunca en el event loop.
+ * - El alta guarda el usuario y sus roles en una única transacción reactiva;
+ *   el hash se calcula antes, para no retener la conexión mientras tanto.
+ */
+@Service
+public class ReactiveUserDetailServiceImpl implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository; // Usuarios (R2DBC)
+
+    @Autowired
+    private ReactiveRoleRepository roleRepository; // Roles y permisos (R2DBC)
+
+    @Autowired
+    private ReactivePasswordHasher passwordHasher; // BCrypt fuera del event loop
+
+    @Autowired
+    private JWTUtils jwtUtils; // Crear tokens JWT
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry; // Authorities compartidas (roles y permisos)
+
+    @Autowired
+    private TransactionalOperator transactionalOperator; // Transacción del alta (usuario + roles)
+
+    /**
+     * =====================================================
+     * findByUsername
+     * =====================================================
+     *
+     * Carga el usuario con una sola consulta y lo adapta al modelo de Spring Security.
+     * Devuelve un Mono vacío si no existe (contrato de ReactiveUserDetailsService).
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findCredentialsByUsername(username)
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(this::toUserDetails);
+    }
+
+    /**
+     * =====================================================
+     * updatePassword
+     * =====================================================
+     *
+     * Guarda un hash nuevo (re-hash tras el login con la política actual).
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userRepository.updatePasswordByUsername(user.getUsername(), newPassword)
+                .thenReturn(User.withUserDetails(user).password(newPassword).build());
+    }
+
+    /**
+     * =====================================================
+     * loginUser
+     * =====================================================
+     *
+     * Valida las credenciales y genera el JWT.
+     */
+    public Mono<AuthResponse> loginUser(AuthLoginRequest authLoginRequest) {
+        String username = authLoginRequest.username();
+        return authenticate(username, authLoginRequest.password())
+                .map(authentication -> new AuthResponse(username, "Usuario autenticado correctamente",
+                        jwtUtils.createToken(authentication), true));
+    }
+
+    /**
+     * =====================================================
+     * authenticate
+     * =====================================================
+     *
+     * Flujo:
+     * 1. Carga usuario desde DB (UsernameNotFoundException si no existe)
+     * 2. Valida la contraseña en el scheduler de hashing (BadCredentialsException si no coincide)
+     * 3. Si el hash guardado no cumple la política actual, lo re-hashea
+     * 4. Devuelve Authentication
+     */
+    public Mono<Authentication> authenticate(String username, String password) {
+        return findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("El usuario " + username + " no existe!")))
+                .flatMap(userDetails -> passwordHasher.matches(password, userDetails.getPassword())
+                        .flatMap(matches -> matches
+                                ? upgradeIfNeeded(userDetails, password)
+                                : Mono.error(new BadCredentialsException("Usuario o contraseña inválidos"))))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(
+                        username, userDetails.getPassword(), userDetails.getAuthorities()));
+    }
+
+    /**
+     * =====================================================
+     * createUser
+     * =====================================================
+     *
+     * Flujo:
+     * 1. Resolver los roles pedidos (y sus permisos) con una consulta
+     * 2. Calcular el hash fuera de la transacción
+     * 3. Guardar usuario + filas de user_roles en una transacción
+     * 4. Generar el JWT con las authorities ya resueltas
+     */
+    public Mono<AuthResponse> createUser(AuthCreateUserRequest authCreateUserRequest) {
+        String username = authCreateUserRequest.username();
+        List<String> roleRequest = authCreateUserRequest.roleRequest() != null
+                ? authCreateUserRequest.roleRequest().roleListName()
+                : null;
+        if (roleRequest == null || roleRequest.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Los roles especificados no existen"));
+        }
+
+        return roleRepository.findWithPermissionsByRoleNames(roleRequest)
+                .collectList()
+                .flatMap(rows -> {
+                    if (rows.isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("Los roles especificados no existen"));
+                    }
+                    Set<Long> roleIds = new LinkedHashSet<>();
+                    rows.forEach(row -> roleIds.add(row.id()));
+                    List<GrantedAuthority> authorities = authorities(rows);
+
+                    return passwordHasher.encode(authCreateUserRequest.password())
+                            .flatMap(encodedPassword -> insertUser(username, encodedPassword, roleIds))
+                            .map(userCreated -> new AuthResponse(userCreated.username(), "Usuario creado correctamente",
+                                    jwtUtils.createToken(new UsernamePasswordAuthenticationToken(
+                                            userCreated.username(), userCreated.password(), authorities)),
+                                    true));
+                });
+    }
+
+    // INSERT en users y uno en user_roles por rol, en la misma transacción
+    private Mono<UserRow> insertUser(String username, String encodedPassword, Set<Long> roleIds) {
+        return userRepository.save(UserRow.newUser(username, encodedPassword))
+                .flatMap(saved -> Flux.fromIterable(roleIds)
+                        .concatMap(roleId -> userRepository.addRole(saved.id(), roleId))
+                        .then(Mono.just(saved)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<UserDetails> upgradeIfNeeded(UserDetails userDetails, String password) {
+        if (!passwordHasher.upgradeEncoding(userDetails.getPassword())) {
+            return Mono.just(userDetails);
+        }
+        return passwordHasher.encode(password)
+                .flatMap(encodedPassword -> updatePassword(userDetails, encodedPassword));
+    }
+
+    // Primero los roles ("ROLE_X") y después los permisos, sin repetir (mismo orden que SpringSecurityJWT)
+    private UserDetails toUserDetails(List<UserCredentialsRow> rows) {
+        UserCredentialsRow account = rows.get(0);
+        Set<GrantedAuthority> roles = new LinkedHashSet<>();
+        Set<GrantedAuthority> permissions = new LinkedHashSet<>();
+        for (UserCredentialsRow row : rows) {
+            if (row.role() != null) {
+                roles.add(authorityRegistry.role(RoleEnum.valueOf(row.role())));
+            }
+            if (row.permission() != null) {
+                permissions.add(authorityRegistry.authority(row.permission()));
+            }
+        }
+        List<GrantedAuthority> authorityList = new ArrayList<>(roles);
+        authorityList.addAll(permissions);
+
+        return new User(
+                account.username(),
+                account.password(),
+                account.enabled(),
+                account.accountNoExpired(),
+                account.credentialNoExpired(),
+                account.accountNoLocked(),
+                authorityList);
+    }
+
+    private List<GrantedAuthority> authorities(List<RolePermissionRow> rows) {
+        Set<GrantedAuthority> roles = new LinkedHashSet<>();
+        Set<GrantedAuthority> permissions = new LinkedHashSet<>();
+        for (RolePermissionRow row : rows) {
+            roles.add(authorityRegistry.role(RoleEnum.valueOf(row.roleName())));
+            if (row.permission() != null) {
+                permissions.add(authorityRegistry.authority(row.permission()));
+            }
+        }
+        List<GrantedAuthority> authorityList = new ArrayList<>(roles);
+        authorityList.addAll(permissions);
+        return authorityList;
+    }
+}
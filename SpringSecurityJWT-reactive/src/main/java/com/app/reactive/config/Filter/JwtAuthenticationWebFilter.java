@@ -0,0 +1,107 @@
+package com.app.reactive.config.Filter;
+
+import com.app.config.Filter.JwtAuthentication;
+import com.app.util.AuthorityRegistry;
+import com.app.util.JWTUtils;
+import com.app.util.TokenValidationResult;
+import com.app.util.VerifiedTokenCache;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * ================================================================
+ * JwtAuthenticationWebFilter
+ * ================================================================
+ *
+ * Equivalente reactivo de JwtTokenValidator: valida el JWT del header
+ * Proxy-Authorization y publica la autenticación en el contexto de Reactor.
+ *
+ * Flujo (mismo orden que la versión Servlet):
+ * 1. Leer el header; si no hay, la petición sigue sin autenticar.
+ * 2. Quitar "Bearer " y revisar la estructura del token (sin criptografía).
+ * 3. Buscar el token en VerifiedTokenCache; si no está, JWTUtils.verify().
+ * 4. Username y authorities compartidas (AuthorityRegistry) + máscara de bits.
+ * 5. Continuar la cadena con ReactiveSecurityContextHolder.withAuthentication(...).
+ *
+ * Todo el trabajo es CPU de microsegundos (HMAC256 + JSON), así que se hace en el
+ * propio event loop, sin cambiar de hilo. Un token inválido se responde con 401
+ * sin lanzar excepciones.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    // Cabecera de respuesta para tokens rechazados (RFC 6750)
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
+    private final JWTUtils jwtUtils;
+    private final VerifiedTokenCache tokenCache;
+    private final AuthorityRegistry authorityRegistry;
+
+    /**
+     * @param jwtUtils validación y lectura del token
+     * @param tokenCache caché de tokens ya verificados (null = sin caché)
+     * @param authorityRegistry registro de authorities compartidas
+     */
+    public JwtAuthenticationWebFilter(JWTUtils jwtUtils, VerifiedTokenCache tokenCache, AuthorityRegistry authorityRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.tokenCache = tokenCache;
+        this.authorityRegistry = authorityRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // --- 1. Extraer token del header ---
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.PROXY_AUTHORIZATION);
+        if (header == null) {
+            return chain.filter(exchange);
+        }
+
+        // --- 2. Quitar prefijo "Bearer " y revisar la estructura ---
+        String jwtToken = JWTUtils.extractBearerToken(header);
+        if (!JWTUtils.isWellFormed(jwtToken)) {
+            return reject(exchange);
+        }
+
+        // --- 3. Validar el token (o reutilizar la validación anterior) ---
+        VerifiedTokenCache.VerifiedToken verified = tokenCache != null ? tokenCache.get(jwtToken) : null;
+        if (verified == null) {
+            TokenValidationResult result = jwtUtils.verify(jwtToken);
+            if (!result.isValid()) {
+                return reject(exchange);
+            }
+            DecodedJWT decodedJWT = result.getDecodedJWT();
+
+            // --- 4. Username y authorities ---
+            String username = jwtUtils.extractUsername(decodedJWT);
+            Collection<? extends GrantedAuthority> authorities = jwtUtils.extractAuthorities(decodedJWT, authorityRegistry);
+            long authorityMask = AuthorityRegistry.maskOf(authorities);
+
+            // Un token sin "exp" nunca se guarda en caché
+            long expiresAt = decodedJWT.getExpiresAt() != null ? decodedJWT.getExpiresAt().getTime() : 0L;
+            verified = tokenCache != null
+                    ? tokenCache.put(jwtToken, username, authorities, authorityMask, expiresAt)
+                    : new VerifiedTokenCache.VerifiedToken(username, authorities, authorityMask, expiresAt);
+        }
+
+        // --- 5. Continuar con la autenticación en el contexto de Reactor ---
+        JwtAuthentication authentication =
+                new JwtAuthentication(verified.username(), verified.authorities(), verified.authorityMask());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    // Responde 401 sin continuar la cadena de filtros
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -0,0 +1,84 @@
+package com.app.reactive.config.Password;
+
+import com.app.config.Password.PasswordHashingOverloadedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ================================================================
+ * ReactivePasswordHasher
+ * ================================================================
+ *
+ * Equivalente reactivo de BoundedPasswordEncoder: BCrypt nunca se ejecuta
+ * en los hilos de Netty (event loop), sino en un Scheduler propio y acotado.
+ *
+ * - threads hilos dedicados, uno por núcleo por defecto (BCrypt es CPU pura).
+ * - queueCapacity tareas en espera por hilo; si no caben, Reactor rechaza la tarea.
+ * - Rechazo o espera mayor que wait-timeout → PasswordHashingOverloadedException (503 + Retry-After).
+ *
+ * Así un pico de logins solo ocupa esos hilos y el event loop sigue atendiendo
+ * las peticiones que solo validan el JWT.
+ */
+public class ReactivePasswordHasher {
+
+    private final PasswordEncoder delegate;
+    private final Scheduler scheduler;
+    private final Duration waitTimeout;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param delegate encoder real (ej: BCryptPasswordEncoder)
+     * @param threads hilos dedicados al hashing
+     * @param queueCapacity tareas que pueden esperar por hilo
+     * @param waitTimeoutMillis espera máxima (cola + cálculo)
+     * @param retryAfterSeconds valor de Retry-After cuando se rechaza
+     */
+    public ReactivePasswordHasher(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long waitTimeoutMillis, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.scheduler = Schedulers.newBoundedElastic(threads, queueCapacity, "password-hashing", 60, true);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMillis);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return offload(Mono.fromCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return offload(Mono.fromCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * No calcula ningún hash: se resuelve en el hilo que llama.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> Mono<T> offload(Mono<T> hashing) {
+        return hashing
+                .subscribeOn(scheduler)
+                .timeout(waitTimeout)
+                .onErrorMap(RejectedExecutionException.class, e -> overloaded())
+                .onErrorMap(TimeoutException.class, e -> overloaded());
+    }
+
+    private PasswordHashingOverloadedException overloaded() {
+        return new PasswordHashingOverloadedException(
+                "Demasiadas peticiones de autenticación, inténtalo más tarde", retryAfterSeconds);
+    }
+
+    /**
+     * Detiene el scheduler. Spring lo llama al cerrar el contexto (método "shutdown" inferido).
+     */
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
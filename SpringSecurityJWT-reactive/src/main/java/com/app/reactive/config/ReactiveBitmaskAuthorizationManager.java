@@ -0,0 +1,57 @@
+package com.app.reactive.config;
+
+import com.app.config.BitmaskAuthorizationManager;
+import com.app.persistence.Entity.PermissionEnum;
+import com.app.persistence.Entity.RoleEnum;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+/**
+ * ================================================================
+ * ReactiveBitmaskAuthorizationManager
+ * ================================================================
+ *
+ * Adaptador de BitmaskAuthorizationManager para WebFlux: misma decisión
+ * (una operación AND sobre la máscara de roles y permisos), sin bloquear.
+ *
+ * Uso en ReactiveSecurityConfig:
+ *   exchanges.pathMatchers(HttpMethod.PATCH, "/method/patch")
+ *       .access(ReactiveBitmaskAuthorizationManager.hasAuthority(PermissionEnum.REFACTOR));
+ */
+public final class ReactiveBitmaskAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final BitmaskAuthorizationManager<AuthorizationContext> delegate;
+
+    private ReactiveBitmaskAuthorizationManager(BitmaskAuthorizationManager<AuthorizationContext> delegate) {
+        this.delegate = delegate;
+    }
+
+    public static ReactiveBitmaskAuthorizationManager hasRole(RoleEnum role) {
+        return new ReactiveBitmaskAuthorizationManager(BitmaskAuthorizationManager.hasRole(role));
+    }
+
+    public static ReactiveBitmaskAuthorizationManager hasAnyRole(RoleEnum... roles) {
+        return new ReactiveBitmaskAuthorizationManager(BitmaskAuthorizationManager.hasAnyRole(roles));
+    }
+
+    public static ReactiveBitmaskAuthorizationManager hasAuthority(PermissionEnum permission) {
+        return new ReactiveBitmaskAuthorizationManager(BitmaskAuthorizationManager.hasAuthority(permission));
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        return authentication
+                .map(current -> delegate.check(() -> current, context))
+                .defaultIfEmpty(DENIED);
+    }
+
+    @Override
+    public String toString() {
+        return "Reactive" + delegate;
+    }
+}
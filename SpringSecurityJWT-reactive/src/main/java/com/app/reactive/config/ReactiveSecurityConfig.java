@@ -0,0 +1,117 @@
+package com.app.reactive.config;
+
+import com.app.config.Password.CalibratedBCryptPasswordEncoder;
+import com.app.config.Password.PasswordEncoderCalibrator;
+import com.app.persistence.Entity.PermissionEnum;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.reactive.config.Filter.JwtAuthenticationWebFilter;
+import com.app.reactive.config.Password.ReactivePasswordHasher;
+import com.app.util.AuthorityRegistry;
+import com.app.util.JWTUtils;
+import com.app.util.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import java.util.Map;
+
+/**
+ * ================================================================
+ * ReactiveSecurityConfig
+ * ================================================================
+ *
+ * Misma política que SecurityConfig en SpringSecurityJWT, sobre WebFlux:
+ * - POST /auth/** público; /method/post para ADMIN o DEVELOPER; /method/patch con REFACTOR.
+ * - Sin sesión: el contexto de seguridad vive solo en la petición (NoOpServerSecurityContextRepository).
+ * - El JWT se valida en JwtAuthenticationWebFilter, en la posición de AUTHENTICATION.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    //Scheduler dedicado al hashing de contraseñas (BCrypt)
+    @Value("${security.password.pool.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password.pool.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password.pool.wait-timeout-ms:5000}")
+    private long passwordHashingWaitTimeoutMillis;
+
+    @Value("${security.password.pool.retry-after-seconds:1}")
+    private long passwordHashingRetryAfterSeconds;
+
+    @Value("${security.password.target-ms:50}")
+    private long passwordTargetMillis;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                // API REST sin formularios ni sesión
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+
+                .authorizeExchange(exchanges -> {
+                    // --- Endpoints publicos ---
+                    exchanges.pathMatchers(HttpMethod.POST, "/auth/log-in", "/auth/sing-up").permitAll();
+                    // --- Endpoints protegidos (máscara de roles/permisos) ---
+                    exchanges.pathMatchers(HttpMethod.POST, "/method/post")
+                            .access(ReactiveBitmaskAuthorizationManager.hasAnyRole(RoleEnum.ADMIN, RoleEnum.DEVELOPER));
+                    exchanges.pathMatchers(HttpMethod.PATCH, "/method/patch")
+                            .access(ReactiveBitmaskAuthorizationManager.hasAuthority(PermissionEnum.REFACTOR));
+                    // --- Cualquier otro endpoint queda denegado ---
+                    exchanges.anyExchange().denyAll();
+                })
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtUtils, verifiedTokenCache, authorityRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * BCrypt calibrado al arrancar (como en SpringSecurityJWT). Los hashes antiguos
+     * sin prefijo ($2a$10$...) se validan con BCrypt y se re-hashean tras el login.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(
+                PasswordEncoderCalibrator.bcryptStrength(passwordTargetMillis, bcryptMinStrength));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    /**
+     * BCrypt fuera del event loop, en un scheduler acotado. threads = 0 → un hilo por núcleo.
+     */
+    @Bean
+    public ReactivePasswordHasher passwordHasher(PasswordEncoder passwordEncoder) {
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Runtime.getRuntime().availableProcessors();
+        return new ReactivePasswordHasher(passwordEncoder, threads, passwordHashingQueueCapacity,
+                passwordHashingWaitTimeoutMillis, passwordHashingRetryAfterSeconds);
+    }
+}
@@ -0,0 +1,34 @@
+package com.app.reactive.controller;
+
+import com.app.controller.DTO.AuthCreateUserRequest;
+import com.app.controller.DTO.AuthLoginRequest;
+import com.app.controller.DTO.AuthResponse;
+import com.app.reactive.Service.ReactiveUserDetailServiceImpl;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    @Autowired
+    private ReactiveUserDetailServiceImpl userDetailService;
+
+    @PostMapping("/sing-up")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AuthResponse> register(@RequestBody @Valid AuthCreateUserRequest authCreateUser) {
+        return userDetailService.createUser(authCreateUser);
+    }
+
+    @PostMapping("/log-in")
+    public Mono<AuthResponse> login(@RequestBody @Valid AuthLoginRequest userRequest) {
+        return userDetailService.loginUser(userRequest);
+    }
+}
@@ -0,0 +1,39 @@
+package com.app.reactive.controller;
+
+import com.app.config.Password.PasswordHashingOverloadedException;
+import com.app.controller.DTO.AuthResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traduce a respuestas HTTP las excepciones de autenticación que salen de los controladores.
+ */
+@RestControllerAdvice
+public class AuthExceptionHandler {
+
+    // Scheduler de hashing saturado → 503 con Retry-After para que el cliente espere antes de reintentar
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<AuthResponse> handleOverloaded(PasswordHashingOverloadedException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(new AuthResponse(null, exception.getMessage(), null, false));
+    }
+
+    // Usuario inexistente o contraseña incorrecta
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<AuthResponse> handleAuthentication(AuthenticationException exception) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new AuthResponse(null, "Usuario o contraseña inválidos", null, false));
+    }
+
+    // Roles inexistentes en el alta
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<AuthResponse> handleBadRequest(IllegalArgumentException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new AuthResponse(null, exception.getMessage(), null, false));
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.reactive.controller;
+
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Endpoints de prueba protegidos por ReactiveSecurityConfig (mismas rutas que TestAuthController).
+ */
+@RestController
+@RequestMapping("/method")
+public class MethodController {
+
+    @PostMapping("/post")
+    public Mono<String> helloPost() {
+        return Mono.just("HelloWorld - POST");
+    }
+
+    @PatchMapping("/patch")
+    public Mono<String> helloPatch() {
+        return Mono.just("HelloWorld - PATCH");
+    }
+}
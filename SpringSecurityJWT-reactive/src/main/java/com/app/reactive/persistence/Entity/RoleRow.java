@@ -0,0 +1,13 @@
+package com.app.reactive.persistence.Entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Fila de la tabla "roles" (misma tabla que RoleEntity en SpringSecurityJWT).
+ * Sus permisos se leen con ReactiveRoleRepository.findWithPermissionsByRoleNames.
+ */
+@Table("roles")
+public record RoleRow(@Id Long id, @Column("role_name") String roleName) {
+}
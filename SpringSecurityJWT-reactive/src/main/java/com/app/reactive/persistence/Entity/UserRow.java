@@ -0,0 +1,34 @@
+package com.app.reactive.persistence.Entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Fila de la tabla "users" (misma tabla que UserEntity en SpringSecurityJWT).
+ *
+ * R2DBC no gestiona relaciones: los roles se guardan aparte en "user_roles"
+ * (ReactiveUserRepository.addRole).
+ */
+@Table("users")
+public record UserRow(
+        @Id Long id,
+        String username,
+        String password,
+        @Column("is_enabled") boolean enabled,
+        @Column("account_no_expired") boolean accountNoExpired,
+        @Column("account_no_locked") boolean accountNoLocked,
+        @Column("credential_no_expired") boolean credentialNoExpired) {
+
+    /**
+     * Usuario nuevo, habilitado y sin id (lo asigna la DB al guardarlo).
+     */
+    public static UserRow newUser(String username, String encodedPassword) {
+        return new UserRow(null, username, encodedPassword, true, true, true, true);
+    }
+
+    // Spring Data lo usa para devolver la fila con el id generado
+    public UserRow withId(Long id) {
+        return new UserRow(id, username, password, enabled, accountNoExpired, accountNoLocked, credentialNoExpired);
+    }
+}
@@ -0,0 +1,7 @@
+package com.app.reactive.persistence.Projection;
+
+/**
+ * Una fila por combinación rol-permiso; permission es null si el rol no tiene permisos.
+ */
+public record RolePermissionRow(long id, String roleName, String permission) {
+}
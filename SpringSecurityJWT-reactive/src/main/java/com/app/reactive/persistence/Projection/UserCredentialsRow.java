@@ -0,0 +1,17 @@
+package com.app.reactive.persistence.Projection;
+
+/**
+ * Una fila por combinación usuario-rol-permiso, con todo lo que necesita
+ * findByUsername para construir el UserDetails (mismo contenido que en SpringSecurityJWT).
+ *
+ * role y permission son null si el usuario no tiene roles o el rol no tiene permisos.
+ */
+public record UserCredentialsRow(String username,
+                                 String password,
+                                 boolean enabled,
+                                 boolean accountNoExpired,
+                                 boolean accountNoLocked,
+                                 boolean credentialNoExpired,
+                                 String role,
+                                 String permission) {
+}
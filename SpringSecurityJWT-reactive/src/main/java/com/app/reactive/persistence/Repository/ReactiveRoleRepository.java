@@ -0,0 +1,27 @@
+package com.app.reactive.persistence.Repository;
+
+import com.app.reactive.persistence.Entity.RoleRow;
+import com.app.reactive.persistence.Projection.RolePermissionRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Repositorio no bloqueante de roles y sus permisos (R2DBC).
+ */
+@Repository
+public interface ReactiveRoleRepository extends ReactiveCrudRepository<RoleRow, Long> {
+
+    /**
+     * Roles con esos nombres (ej: "ADMIN") y sus permisos, una fila por rol-permiso.
+     */
+    @Query("SELECT r.id, r.role_name, p.name AS permission " +
+            "FROM roles r " +
+            "LEFT JOIN role_permissions rp ON rp.role_id = r.id " +
+            "LEFT JOIN permissions p ON p.id = rp.permission_id " +
+            "WHERE r.role_name IN (:roleNames)")
+    Flux<RolePermissionRow> findWithPermissionsByRoleNames(Collection<String> roleNames);
+}
@@ -0,0 +1,46 @@
+package com.app.reactive.persistence.Repository;
+
+import com.app.reactive.persistence.Entity.UserRow;
+import com.app.reactive.persistence.Projection.UserCredentialsRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio no bloqueante de usuarios (R2DBC).
+ * Equivalente reactivo de UserRepository en SpringSecurityJWT.
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+
+    /**
+     * Cuenta, hash y nombres de roles/permisos en una sola consulta.
+     */
+    @Query("SELECT u.username, u.password, u.is_enabled AS enabled, " +
+            "u.account_no_expired, u.account_no_locked, u.credential_no_expired, " +
+            "r.role_name AS role, p.name AS permission " +
+            "FROM users u " +
+            "LEFT JOIN user_roles ur ON ur.user_id = u.id " +
+            "LEFT JOIN roles r ON r.id = ur.role_id " +
+            "LEFT JOIN role_permissions rp ON rp.role_id = r.id " +
+            "LEFT JOIN permissions p ON p.id = rp.permission_id " +
+            "WHERE u.username = :username")
+    Flux<UserCredentialsRow> findCredentialsByUsername(String username);
+
+    /**
+     * Asigna un rol a un usuario (tabla intermedia "user_roles").
+     */
+    @Modifying
+    @Query("INSERT INTO user_roles (user_id, role_id) VALUES (:userId, :roleId)")
+    Mono<Integer> addRole(long userId, long roleId);
+
+    /**
+     * Reemplaza el hash de la contraseña (re-hash tras el login).
+     */
+    @Modifying
+    @Query("UPDATE users SET password = :password WHERE username = :username")
+    Mono<Integer> updatePasswordByUsername(String username, String password);
+}
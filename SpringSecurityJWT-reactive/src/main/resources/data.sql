@@ -0,0 +1,24 @@
+-- Datos de ejemplo: mismos permisos, roles y usuarios que el CommandLineRunner de SpringSecurityJWT
+INSERT INTO permissions (id, name) VALUES
+    (1, 'CREATE'), (2, 'READ'), (3, 'UPDATE'), (4, 'DELETE'), (5, 'REFACTOR');
+
+INSERT INTO roles (id, role_name) VALUES
+    (1, 'ADMIN'), (2, 'USER'), (3, 'DEVELOPER'), (4, 'INVITED');
+
+INSERT INTO role_permissions (role_id, permission_id) VALUES
+    (1, 1), (1, 2), (1, 3), (1, 4),
+    (2, 2),
+    (3, 1), (3, 2), (3, 3), (3, 4), (3, 5),
+    (4, 2);
+
+INSERT INTO users (id, username, password, is_enabled, account_no_expired, account_no_locked, credential_no_expired) VALUES
+    (1, 'Duzz', '$2a$10$fcLYlZomll20nn15VRh4VuYuH9V/TKoUw9CbodWWVEzHMzY91sDx2', TRUE, TRUE, TRUE, TRUE),
+    (2, 'Paul', '$2a$10$fcLYlZomll20nn15VRh4VuYuH9V/TKoUw9CbodWWVEzHMzY91sDx2', TRUE, TRUE, TRUE, TRUE),
+    (3, 'Noe', '$2a$10$fcLYlZomll20nn15VRh4VuYuH9V/TKoUw9CbodWWVEzHMzY91sDx2', TRUE, TRUE, TRUE, TRUE),
+    (4, 'SoplaGaitas', '$2a$10$fcLYlZomll20nn15VRh4VuYuH9V/TKoUw9CbodWWVEzHMzY91sDx2', TRUE, TRUE, TRUE, TRUE);
+
+INSERT INTO user_roles (user_id, role_id) VALUES
+    (1, 3), (2, 2), (3, 1), (4, 4);
+
+-- Los altas nuevas continúan después de los ids fijos
+ALTER TABLE users ALTER COLUMN id RESTART WITH 100;
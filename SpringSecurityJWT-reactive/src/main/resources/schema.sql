@@ -0,0 +1,32 @@
+-- Mismas tablas que genera Hibernate en SpringSecurityJWT (R2DBC no crea el esquema)
+CREATE TABLE IF NOT EXISTS permissions (
+    id   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    role_name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS role_permissions (
+    role_id       BIGINT NOT NULL REFERENCES roles (id),
+    permission_id BIGINT NOT NULL REFERENCES permissions (id),
+    PRIMARY KEY (role_id, permission_id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id                    BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username              VARCHAR(255) UNIQUE,
+    password              VARCHAR(255),
+    is_enabled            BOOLEAN NOT NULL,
+    account_no_expired    BOOLEAN NOT NULL,
+    account_no_locked     BOOLEAN NOT NULL,
+    credential_no_expired BOOLEAN NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
@@ -0,0 +1,145 @@
+package com.app.reactive;
+
+import com.app.controller.DTO.AuthResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cadena de seguridad reactiva de extremo a extremo contra la H2 embebida (R2DBC).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveSecurityTests {
+
+    private static final int CONCURRENT_REQUESTS = 2_000;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void signUpTokenGrantsAccessToProtectedEndpoints() {
+        String token = signUp("reactive-dev", "DEVELOPER");
+
+        webTestClient.post().uri("/method/post")
+                .header(HttpHeaders.PROXY_AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("HelloWorld - POST");
+
+        webTestClient.patch().uri("/method/patch")
+                .header(HttpHeaders.PROXY_AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void loginChecksPasswordAgainstStoredHash() {
+        signUp("reactive-login", "USER");
+
+        AuthResponse response = webTestClient.post().uri("/auth/log-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"username":"reactive-login","password":"1234"}""")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(AuthResponse.class).returnResult().getResponseBody();
+        assertNotNull(response);
+        assertNotNull(response.jwt());
+
+        webTestClient.post().uri("/auth/log-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"username":"reactive-login","password":"wrong"}""")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.post().uri("/auth/log-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"username":"nobody","password":"1234"}""")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void roleWithoutPermissionIsForbidden() {
+        // USER solo tiene READ: ni rol ADMIN/DEVELOPER ni permiso REFACTOR
+        String token = signUp("reactive-user", "USER");
+
+        webTestClient.patch().uri("/method/patch")
+                .header(HttpHeaders.PROXY_AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void invalidTokenIsRejectedWithChallenge() {
+        webTestClient.post().uri("/method/post")
+                .header(HttpHeaders.PROXY_AUTHORIZATION, "Bearer not-a-jwt")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+    }
+
+    @Test
+    void manyConcurrentRequestsAreServed() {
+        String token = signUp("reactive-load", "DEVELOPER");
+        // Una conexión por petición: el servidor ve CONCURRENT_REQUESTS conexiones abiertas a la vez
+        ConnectionProvider connections = ConnectionProvider.builder("concurrent-test")
+                .maxConnections(CONCURRENT_REQUESTS)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+
+        List<HttpStatus> statuses = Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> client.post().uri("/method/post")
+                        .header(HttpHeaders.PROXY_AUTHORIZATION, "Bearer " + token)
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(HttpStatus.valueOf(response.statusCode().value()))),
+                        CONCURRENT_REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+
+        connections.dispose();
+
+        assertNotNull(statuses);
+        assertEquals(CONCURRENT_REQUESTS, statuses.size());
+        assertTrue(statuses.stream().allMatch(HttpStatus.OK::equals));
+    }
+
+    private String signUp(String username, String role) {
+        AuthResponse response = webTestClient.post().uri("/auth/sing-up")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"username":"%s","password":"1234","roleRequest":{"roleListName":["%s"]}}"""
+                        .formatted(username, role))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AuthResponse.class).returnResult().getResponseBody();
+        assertNotNull(response);
+        return response.jwt();
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.Service;
+
+import com.app.util.BoundedEviction;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ================================================
+ * InMemoryRefreshTokenStore
+ * ================================================
+ *
+ * RefreshTokenStore en memoria (por defecto). Rápido, pero los tokens se pierden al reiniciar
+ * y no se comparten entre instancias: para eso está JpaRefreshTokenStore.
+ *
+ * - Un instante de uso por token (AtomicLong, 0 = sin usar): compareAndSet garantiza un solo VALID.
+ * - Las familias están indexadas por id: revocar una es O(1) y no recorre los tokens.
+ *   Una familia revocada se recuerda hasta su caducidad, así un token emitido
+ *   a la vez que se revocaba su familia tampoco sirve.
+ * - purgeExpired() borra los tokens y familias caducados y también los tokens usados
+ *   antes de la ventana de detección de reutilización: la memoria depende de las familias
+ *   vivas y de las rotaciones recientes, no de todas las rotaciones desde el login.
+ */
+@Component
+@ConditionalOnProperty(name = "security.refresh-token.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    // hash del token → token e instante de uso
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    // familyId → caducidad y revocación de la familia
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(RefreshTokenRecord token) {
+        families.computeIfAbsent(token.familyId(), id -> new Family(token.expiresAtMillis(), new AtomicBoolean()));
+        tokens.put(token.tokenHash(), new Entry(token, new AtomicLong()));
+    }
+
+    @Override
+    public ConsumeResult consume(String tokenHash, long nowMillis) {
+        Entry entry = tokens.get(tokenHash);
+        if (entry == null) {
+            return new ConsumeResult(Status.NOT_FOUND, null);
+        }
+        RefreshTokenRecord token = entry.token();
+        Family family = families.get(token.familyId());
+        if (family != null && family.revoked().get()) {
+            return new ConsumeResult(Status.REUSED, token);
+        }
+        if (token.expiresAtMillis() <= nowMillis) {
+            return new ConsumeResult(Status.EXPIRED, token);
+        }
+        if (!entry.usedAtMillis().compareAndSet(0L, nowMillis)) {
+            return new ConsumeResult(Status.REUSED, token);
+        }
+        return new ConsumeResult(Status.VALID, token);
+    }
+
+    @Override
+    public RefreshTokenRecord find(String tokenHash) {
+        Entry entry = tokens.get(tokenHash);
+        return entry == null ? null : entry.token();
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        Family family = families.get(familyId);
+        if (family != null) {
+            family.revoked().set(true);
+        }
+    }
+
+    @Override
+    public int purgeExpired(long nowMillis, long usedBeforeMillis) {
+        int purged = BoundedEviction.removeIf(tokens, entry -> entry.token().expiresAtMillis() <= nowMillis
+                || (entry.usedAtMillis().get() != 0L && entry.usedAtMillis().get() <= usedBeforeMillis));
+        families.values().removeIf(family -> family.expiresAtMillis() <= nowMillis);
+        return purged;
+    }
+
+    /**
+     * Tokens guardados (sin usar y usados dentro de la ventana de reutilización).
+     */
+    public int size() {
+        return tokens.size();
+    }
+
+    private record Entry(RefreshTokenRecord token, AtomicLong usedAtMillis) {
+    }
+
+    private record Family(long expiresAtMillis, AtomicBoolean revoked) {
+    }
+}
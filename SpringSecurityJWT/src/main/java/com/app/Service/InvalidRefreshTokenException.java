@@ -0,0 +1,21 @@
+package com.app.Service;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Refresh token desconocido, caducado, ya usado o de una cuenta que ya no puede entrar.
+ * El controlador responde 401: el cliente tiene que volver a hacer login.
+ *
+ * No captura stack trace: su origen siempre es el mismo (RefreshTokenService).
+ */
+public class InvalidRefreshTokenException extends AuthenticationException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.Service;
+
+import com.app.persistence.Entity.RefreshTokenEntity;
+import com.app.persistence.Repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * ================================================
+ * JpaRefreshTokenStore
+ * ================================================
+ *
+ * RefreshTokenStore sobre la tabla refresh_tokens (security.refresh-token.store=jpa).
+ * Los tokens sobreviven a reinicios y valen en cualquier instancia.
+ *
+ * consume() es un UPDATE condicional (markUsed) y una lectura por clave primaria:
+ * la base de datos decide quién consume el token cuando llegan dos peticiones a la vez.
+ */
+@Component
+@ConditionalOnProperty(name = "security.refresh-token.store", havingValue = "jpa")
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    @Transactional
+    public void save(RefreshTokenRecord token) {
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(token.tokenHash())
+                .username(token.username())
+                .familyId(token.familyId())
+                .expiresAt(Instant.ofEpochMilli(token.expiresAtMillis()))
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public ConsumeResult consume(String tokenHash, long nowMillis) {
+        boolean consumed = refreshTokenRepository.markUsed(tokenHash, Instant.ofEpochMilli(nowMillis)) == 1;
+        RefreshTokenEntity entity = refreshTokenRepository.findById(tokenHash).orElse(null);
+        if (entity == null) {
+            return new ConsumeResult(Status.NOT_FOUND, null);
+        }
+        RefreshTokenRecord token = toRecord(entity);
+        if (!consumed || refreshTokenRepository.existsByFamilyIdAndRevokedTrue(entity.getFamilyId())) {
+            return new ConsumeResult(Status.REUSED, token);
+        }
+        if (token.expiresAtMillis() <= nowMillis) {
+            return new ConsumeResult(Status.EXPIRED, token);
+        }
+        return new ConsumeResult(Status.VALID, token);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RefreshTokenRecord find(String tokenHash) {
+        return refreshTokenRepository.findById(tokenHash).map(JpaRefreshTokenStore::toRecord).orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(long nowMillis, long usedBeforeMillis) {
+        return refreshTokenRepository.deleteExpired(Instant.ofEpochMilli(nowMillis), Instant.ofEpochMilli(usedBeforeMillis));
+    }
+
+    private static RefreshTokenRecord toRecord(RefreshTokenEntity entity) {
+        return new RefreshTokenRecord(entity.getTokenHash(), entity.getUsername(),
+                entity.getFamilyId(), entity.getExpiresAt().toEpochMilli());
+    }
+}
@@ -0,0 +1,282 @@
+package com.app.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ================================================
+ * LoginAttemptTracker
+ * ================================================
+ *
+ * Cuenta los logins fallidos por usuario y bloquea la cuenta al llegar al umbral.
+ *
+ * La tabla users es la fuente de verdad; la memoria solo guarda los cambios aún no escritos.
+ *
+ * Memoria (camino caliente):
+ * - Un estado por usuario con cambios pendientes en un ConcurrentHashMap; cada cambio es un
+ *   compute() sobre su clave, que solo bloquea el bin de esa clave.
+ * - El primer fallo de un usuario sin estado en memoria lee failed_attempts y account_No_Locked
+ *   de la DB (read-through), así el contador sigue donde se quedó tras un flush o un reinicio.
+ *   Una fila desbloqueada con failed_attempts ya en el umbral (desbloqueo hecho a mano en la DB
+ *   sin reiniciar el contador) empieza de 0: el siguiente fallo no la vuelve a bloquear de inmediato.
+ * - isLocked() es un get() del mapa: cubre el bloqueo que aún no se ha escrito.
+ *
+ * Escritura diferida (write-behind):
+ * - Cada cambio solo marca al usuario como pendiente.
+ * - flush() se ejecuta cada flush-interval-ms y escribe con JdbcTemplate.batchUpdate
+ *   un UPDATE por usuario pendiente con su último estado: por muchos intentos que haya
+ *   en el intervalo, como mucho una escritura por usuario.
+ * - Tras escribir se libera el estado (salvo que haya cambiado durante el flush):
+ *   desde ahí el bloqueo lo lee loadUserByUsername de la columna account_No_Locked.
+ *
+ * Notas:
+ * - Solo se cuentan usuarios que existen (BadCredentialsException); los username inventados
+ *   no ocupan memoria y los frena LoginThrottle.
+ * - La cuenta se desbloquea con unlock() o poniendo account_No_Locked a true en la DB;
+ *   en este último caso se aplica cuando caduca el usuario en UserDetailsCache (security.user-cache.ttl-ms).
+ */
+@Component
+public class LoginAttemptTracker {
+
+    // Último estado conocido de la cuenta; se escribe tal cual en la tabla users
+    private static final String UPDATE_SQL = "UPDATE users SET failed_attempts = ?, account_No_Locked = ?, "
+            + "last_login_at = COALESCE(?, last_login_at) WHERE username = ?";
+
+    // Estado guardado, para seguir contando después de un flush o un reinicio
+    private static final String SELECT_STATE_SQL = "SELECT failed_attempts, account_No_Locked FROM users WHERE username = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    private final boolean enabled;
+    private final int maxFailures;
+
+    // Clave: username en minúsculas (MySQL compara usernames sin distinguir mayúsculas)
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // Un flush a la vez (el programado y el del cierre pueden coincidir)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lockouts = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+
+    public LoginAttemptTracker(@Value("${security.login-lockout.enabled:true}") boolean enabled,
+                               @Value("${security.login-lockout.max-failures:10}") int maxFailures) {
+        this.enabled = enabled;
+        this.maxFailures = maxFailures;
+    }
+
+    /**
+     * true si la cuenta está bloqueada en memoria (no consulta la DB).
+     */
+    public boolean isLocked(String username) {
+        Attempts current = attempts.get(key(username));
+        return current != null && current.locked();
+    }
+
+    /**
+     * Lanza LockedException si la cuenta está bloqueada en memoria.
+     */
+    public void checkNotLocked(String username) {
+        if (enabled && isLocked(username)) {
+            throw new LockedException("La cuenta del usuario " + username + " está bloqueada");
+        }
+    }
+
+    /**
+     * Suma un fallo; al llegar a max-failures bloquea la cuenta.
+     *
+     * @param username username tal y como está en la DB (userDetails.getUsername())
+     * @return true si este fallo ha bloqueado la cuenta
+     */
+    public boolean recordFailure(String username) {
+        if (!enabled) {
+            return false;
+        }
+        failures.increment();
+        String key = key(username);
+        if (!attempts.containsKey(key)) {
+            // Read-through fuera del compute(): no se hace I/O con el bin del mapa bloqueado
+            attempts.putIfAbsent(key, storedAttempts(username));
+        }
+        // Estado anterior al fallo: la cuenta se bloquea ahora solo si antes no lo estaba
+        boolean[] previous = new boolean[1];
+        Attempts updated = attempts.compute(key, (k, current) -> {
+            Attempts base = current != null ? current : Attempts.initial(username);
+            previous[0] = base.locked();
+            int count = base.failures() + 1;
+            boolean locked = base.locked() || count >= maxFailures;
+            return new Attempts(base.username(), count, locked, base.lastLoginMillis(), base.lockChanged() || locked != base.locked());
+        });
+        pending.add(key);
+        boolean lockedNow = updated.locked() && !previous[0];
+        if (lockedNow) {
+            lockouts.increment();
+        }
+        return lockedNow;
+    }
+
+    /**
+     * Login correcto: reinicia el contador y anota la hora del login.
+     */
+    public void recordSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(username);
+        long now = System.currentTimeMillis();
+        attempts.compute(key, (k, current) -> current != null
+                ? new Attempts(current.username(), 0, current.locked(), now, current.lockChanged())
+                : new Attempts(username, 0, false, now, false));
+        pending.add(key);
+    }
+
+    /**
+     * Desbloquea la cuenta y reinicia su contador.
+     */
+    public void unlock(String username) {
+        String key = key(username);
+        attempts.compute(key, (k, current) -> current != null
+                ? new Attempts(current.username(), 0, false, current.lastLoginMillis(), true)
+                : new Attempts(username, 0, false, 0L, true));
+        pending.add(key);
+    }
+
+    /**
+     * Escribe en la tabla users el último estado de cada usuario pendiente, en un único lote JDBC.
+     */
+    @Scheduled(fixedDelayString = "${security.login-lockout.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        List<Attempts> batch = new ArrayList<>();
+        try {
+            // Se quita de pendientes ANTES de leer el estado: un cambio posterior vuelve a marcarlo
+            Iterator<String> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next();
+                iterator.remove();
+                Attempts current = attempts.get(key);
+                if (current != null) {
+                    batch.add(current);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (statement, state) -> {
+                statement.setInt(1, state.failures());
+                statement.setBoolean(2, !state.locked());
+                if (state.lastLoginMillis() > 0L) {
+                    statement.setTimestamp(3, new Timestamp(state.lastLoginMillis()));
+                } else {
+                    statement.setNull(3, Types.TIMESTAMP);
+                }
+                statement.setString(4, state.username());
+            });
+            flushedRows.add(batch.size());
+
+            for (Attempts state : batch) {
+                String key = key(state.username());
+                // El UserDetails en caché tiene el bloqueo anterior: que se relea de la DB ya actualizada
+                if (state.lockChanged()) {
+                    userDetailsCache.invalidate(state.username());
+                }
+                // Ya está en la DB: se libera. Si cambió durante el flush se conserva (vuelve a estar
+                // pendiente), pero el bloqueo ya escrito no tiene que volver a invalidar la caché
+                if (!attempts.remove(key, state) && state.lockChanged()) {
+                    attempts.computeIfPresent(key, (k, current) -> current.locked() == state.locked()
+                            ? new Attempts(current.username(), current.failures(), current.locked(),
+                            current.lastLoginMillis(), false)
+                            : current);
+                }
+            }
+        } catch (RuntimeException e) {
+            // La DB no respondió: se reintenta en el siguiente intervalo (la memoria sigue mandando)
+            batch.forEach(state -> pending.add(key(state.username())));
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Lo pendiente se escribe antes de cerrar el DataSource
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Estado de la DB (sin fila o con nulls, estado inicial). Desbloqueada con el contador en el umbral:
+    // la desbloquearon a mano sin reiniciarlo, se empieza de 0
+    private Attempts storedAttempts(String username) {
+        List<Attempts> stored = jdbcTemplate.query(SELECT_STATE_SQL, (row, rowNum) -> {
+            int failures = row.getInt("failed_attempts");
+            boolean locked = !row.getBoolean("account_No_Locked") && !row.wasNull();
+            return new Attempts(username, !locked && failures >= maxFailures ? 0 : failures, locked, 0L, false);
+        }, username);
+        return stored.isEmpty() ? Attempts.initial(username) : stored.get(0);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    // --- Métricas ---
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getLockoutCount() {
+        return lockouts.sum();
+    }
+
+    public long getFlushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Estado inmutable de una cuenta; cada cambio crea uno nuevo dentro de compute().
+     *
+     * @param username username tal y como está en la DB
+     * @param failures fallos seguidos desde el último login correcto
+     * @param locked cuenta bloqueada
+     * @param lastLoginMillis último login correcto (0 = ninguno desde el arranque)
+     * @param lockChanged el bloqueo cambió desde el último flush (hay que invalidar UserDetailsCache)
+     */
+    private record Attempts(String username, int failures, boolean locked, long lastLoginMillis, boolean lockChanged) {
+
+        static Attempts initial(String username) {
+            return new Attempts(username, 0, false, 0L, false);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.app.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ================================================
+ * RefreshTokenService
+ * ================================================
+ *
+ * Emite y rota refresh tokens de un solo uso.
+ *
+ * - El refresh token es opaco: 32 bytes aleatorios en base64url. En el store solo se guarda su SHA-256.
+ * - Cada login abre una familia con caducidad absoluta (security.refresh-token.ttl-ms);
+ *   cada rotación emite un token nuevo de la misma familia y con la misma caducidad.
+ * - Presentar un token ya usado significa que alguien más lo tiene: se revoca la familia entera
+ *   y tanto el cliente legítimo como el atacante tienen que volver a hacer login.
+ *   Los tokens usados se recuerdan durante security.refresh-token.reuse-detection-ms;
+ *   después se borran y presentarlos solo da "Refresh token inválido".
+ *
+ * Renovar cuesta un SHA-256, una búsqueda en el store y la firma del access token; nunca BCrypt.
+ * UserDetailServiceimpl.refresh() comprueba además que la cuenta siga activa.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    // MessageDigest no es seguro entre hilos: se clona este prototipo en cada uso (igual que VerifiedTokenCache)
+    private static final MessageDigest SHA_256 = sha256();
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Value("${security.refresh-token.ttl-ms:1209600000}")
+    private long ttlMillis;
+
+    // Cuánto se recuerda un token ya usado para detectar que se reutiliza
+    @Value("${security.refresh-token.reuse-detection-ms:86400000}")
+    private long reuseDetectionMillis;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final LongAdder reuses = new LongAdder();
+
+    /**
+     * Abre una familia nueva (login o alta de usuario) y devuelve su primer refresh token.
+     */
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString(), System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * Siguiente token de la familia del token ya consumido.
+     */
+    public String issueNext(RefreshTokenStore.RefreshTokenRecord consumed) {
+        return issue(consumed.username(), consumed.familyId(), consumed.expiresAtMillis());
+    }
+
+    /**
+     * Consume un refresh token presentado por el cliente.
+     *
+     * @return el token guardado (username, familia, caducidad)
+     * @throws InvalidRefreshTokenException si no existe, caducó o ya se había usado
+     */
+    public RefreshTokenStore.RefreshTokenRecord consume(String refreshToken) {
+        RefreshTokenStore.ConsumeResult result = refreshTokenStore.consume(hash(refreshToken), System.currentTimeMillis());
+        switch (result.status()) {
+            case VALID -> {
+                return result.token();
+            }
+            case REUSED -> {
+                // Reutilización: el token se filtró. Fuera toda la familia
+                reuses.increment();
+                refreshTokenStore.revokeFamily(result.token().familyId());
+                throw new InvalidRefreshTokenException("Refresh token ya utilizado, vuelve a iniciar sesión");
+            }
+            case EXPIRED -> throw new InvalidRefreshTokenException("Refresh token caducado, vuelve a iniciar sesión");
+            default -> throw new InvalidRefreshTokenException("Refresh token inválido");
+        }
+    }
+
+    /**
+     * Revoca la familia de un token ya consumido (ej: la cuenta se bloqueó entre tanto).
+     */
+    public void revoke(RefreshTokenStore.RefreshTokenRecord consumed) {
+        refreshTokenStore.revokeFamily(consumed.familyId());
+    }
+
+    /**
+     * Revoca la familia de un refresh token presentado por su dueño (logout).
+     *
+     * El token no se consume: si no es del usuario no se toca, y su dueño puede seguir usándolo.
+     *
+     * @param username usuario autenticado que cierra la sesión
+     * @return true si se revocó; false si el token no existe o ya caducó (no hay nada que revocar)
+     * @throws InvalidRefreshTokenException si el token es de otro usuario
+     */
+    public boolean revoke(String refreshToken, String username) {
+        RefreshTokenStore.RefreshTokenRecord token = refreshTokenStore.find(hash(refreshToken));
+        if (token == null || token.expiresAtMillis() <= System.currentTimeMillis()) {
+            return false;
+        }
+        // Los dos salen del username guardado en la DB (subject del JWT y dueño del refresh token)
+        if (!token.username().equals(username)) {
+            throw new InvalidRefreshTokenException("Refresh token inválido");
+        }
+        refreshTokenStore.revokeFamily(token.familyId());
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${security.refresh-token.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        refreshTokenStore.purgeExpired(now, now - reuseDetectionMillis);
+    }
+
+    public long getReuseCount() {
+        return reuses.sum();
+    }
+
+    private String issue(String username, String familyId, long expiresAtMillis) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenStore.save(new RefreshTokenStore.RefreshTokenRecord(hash(refreshToken), username, familyId, expiresAtMillis));
+        return refreshToken;
+    }
+
+    private static String hash(String refreshToken) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            digest = sha256();
+        }
+        return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.app.Service;
+
+/**
+ * Almacén de refresh tokens.
+ *
+ * Solo guarda el SHA-256 del token, nunca el token en claro.
+ * Todos los tokens de una familia (los que salen de un mismo login al rotar)
+ * comparten la misma caducidad absoluta.
+ *
+ * Implementaciones (security.refresh-token.store):
+ * - memory (por defecto) → InMemoryRefreshTokenStore
+ * - jpa                  → JpaRefreshTokenStore, tabla refresh_tokens
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Guarda un token recién emitido.
+     */
+    void save(RefreshTokenRecord token);
+
+    /**
+     * Marca el token como usado, de forma atómica: solo una llamada por token puede devolver VALID.
+     *
+     * @param tokenHash SHA-256 del token presentado
+     * @param nowMillis instante actual
+     */
+    ConsumeResult consume(String tokenHash, long nowMillis);
+
+    /**
+     * Busca un token sin consumirlo.
+     *
+     * @return el token guardado, o null si no existe
+     */
+    RefreshTokenRecord find(String tokenHash);
+
+    /**
+     * Revoca todos los tokens de una familia (reutilización detectada, logout).
+     */
+    void revokeFamily(String familyId);
+
+    /**
+     * Elimina los tokens caducados y los usados antes de usedBeforeMillis.
+     *
+     * Un token usado solo sirve para detectar su reutilización; pasada esa ventana
+     * presentarlo da NOT_FOUND (sigue siendo inválido, pero ya no revoca la familia).
+     *
+     * @param nowMillis instante actual
+     * @param usedBeforeMillis los tokens usados antes de este instante se eliminan
+     * @return número de tokens eliminados
+     */
+    int purgeExpired(long nowMillis, long usedBeforeMillis);
+
+    /**
+     * Token guardado.
+     *
+     * @param tokenHash SHA-256 del token en hexadecimal
+     * @param username dueño del token
+     * @param familyId familia (un login y todas sus rotaciones)
+     * @param expiresAtMillis caducidad absoluta de la familia
+     */
+    record RefreshTokenRecord(String tokenHash, String username, String familyId, long expiresAtMillis) {
+    }
+
+    /**
+     * Resultado de consume(); token es null si no existe.
+     */
+    record ConsumeResult(Status status, RefreshTokenRecord token) {
+    }
+
+    enum Status {
+        VALID,      // primera vez que se presenta: se puede rotar
+        NOT_FOUND,  // nunca emitido, o ya purgado
+        EXPIRED,    // la familia caducó: hay que volver a hacer login
+        REUSED      // ya se usó o su familia está revocada
+    }
+}
@@ -0,0 +1,199 @@
+package com.app.Service;
+
+import com.app.persistence.Entity.PermissionEntity;
+import com.app.persistence.Entity.RoleEntity;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.persistence.Repository.RoleRespository;
+import com.app.util.AuthorityRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ================================================
+ * RoleCatalog
+ * ================================================
+ *
+ * Catálogo en memoria de los roles y sus permisos.
+ *
+ * Las filas de "roles" y "permissions" casi nunca cambian, así que el alta de usuarios
+ * y la generación de su token no necesitan consultarlas en cada petición.
+ *
+ * Funcionamiento:
+ * 1. Al arrancar, en cuanto están creados todos los singletons (antes de los CommandLineRunner
+ *    y de aceptar peticiones), se leen todos los roles con sus permisos.
+ * 2. Se construye una foto inmutable: RoleEnum → id del RoleEntity + authorities ya calculadas.
+ * 3. La foto se reemplaza entera (referencia volatile), nunca se modifica:
+ *    quien la está leyendo sigue viendo una versión coherente.
+ * 4. Cuando se edita un rol o un permiso (RoleCatalogListener) se recarga
+ *    después del commit, y se vacía UserDetailsCache porque las authorities cambiaron.
+ *
+ * La recarga siempre va en su propia transacción (REQUIRES_NEW, solo lectura): desde afterCommit
+ * los recursos de la transacción que acaba de terminar siguen asociados al hilo, y sin una
+ * transacción nueva la lectura se haría sobre ellos.
+ */
+@Component
+public class RoleCatalog implements SmartInitializingSingleton {
+
+    @Autowired
+    private RoleRespository roleRespository;
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Foto actual; se reemplaza completa en cada recarga
+    private volatile Snapshot snapshot = new Snapshot(Map.of());
+
+    // Una recarga a la vez. ReentrantLock y no synchronized: la recarga consulta la DB
+    // y, con hilos virtuales, un bloque synchronized dejaría fijado (pinned) el hilo portador
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Carga inicial: antes de que ningún runner o petición pueda resolver roles
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Vuelve a leer roles y permisos de la DB y publica una foto nueva.
+     */
+    public void reload() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+
+        reloadLock.lock();
+        try {
+            this.snapshot = transaction.execute(status -> readSnapshot());
+            userDetailsCache.invalidateAll();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // Lee roles y permisos (llamar dentro de una transacción: los permisos se cargan de forma perezosa)
+    private Snapshot readSnapshot() {
+        Map<RoleEnum, CatalogRole> roles = new EnumMap<>(RoleEnum.class);
+        for (RoleEntity role : roleRespository.findAll()) {
+            Set<GrantedAuthority> permissions = new LinkedHashSet<>();
+            for (PermissionEntity permission : role.getPermisos()) {
+                permissions.add(authorityRegistry.authority(permission.getName()));
+            }
+            roles.put(role.getRoleEnum(), new CatalogRole(role.getRoleEnum(), role.getId(),
+                    authorityRegistry.role(role.getRoleEnum()), List.copyOf(permissions)));
+        }
+        return new Snapshot(Map.copyOf(roles));
+    }
+
+    /**
+     * Programa una recarga para después del commit de la transacción actual
+     * (o la hace ya si no hay transacción). La llama RoleCatalogListener.
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        // Una sola recarga por transacción aunque se editen varias filas
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RoleCatalog.this);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rol del catálogo, o null si no existe.
+     */
+    public CatalogRole get(RoleEnum role) {
+        return snapshot.roles().get(role);
+    }
+
+    /**
+     * Traduce nombres de rol (ej: "ADMIN") a roles del catálogo; los que no existen se ignoran.
+     */
+    public List<CatalogRole> resolve(Collection<String> roleNames) {
+        Snapshot current = snapshot;
+        Set<CatalogRole> resolved = new LinkedHashSet<>();
+        for (String roleName : roleNames) {
+            CatalogRole role = current.byName(roleName);
+            if (role != null) {
+                resolved.add(role);
+            }
+        }
+        return List.copyOf(resolved);
+    }
+
+    /**
+     * Authorities de un conjunto de roles: primero los roles y después los permisos, sin repetir
+     * (mismo orden que loadUserByUsername).
+     */
+    public List<GrantedAuthority> authorities(Collection<CatalogRole> roles) {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        roles.forEach(role -> authorities.add(role.roleAuthority()));
+        roles.forEach(role -> authorities.addAll(role.permissions()));
+        return new ArrayList<>(authorities);
+    }
+
+    /**
+     * Ids de las filas de "roles", para UserRepository.insertNewUser.
+     */
+    public List<Long> ids(Collection<CatalogRole> roles) {
+        return roles.stream().map(CatalogRole::id).toList();
+    }
+
+    /**
+     * Rol del catálogo.
+     *
+     * @param role valor del enum
+     * @param id id de la fila en "roles"
+     * @param roleAuthority authority del rol ("ROLE_X")
+     * @param permissions authorities de sus permisos
+     */
+    public record CatalogRole(RoleEnum role, long id, GrantedAuthority roleAuthority,
+                              List<GrantedAuthority> permissions) {
+    }
+
+    // Foto inmutable del catálogo
+    private record Snapshot(Map<RoleEnum, CatalogRole> roles) {
+
+        CatalogRole byName(String roleName) {
+            for (CatalogRole role : roles.values()) {
+                if (role.role().name().equals(roleName)) {
+                    return role;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.Service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de RoleEntity y PermissionEntity.
+ *
+ * Cualquier alta, cambio o borrado de un rol o permiso programa la recarga de RoleCatalog
+ * al terminar la transacción. Hibernate obtiene el listener del contexto de Spring;
+ * RoleCatalog se inyecta @Lazy porque depende del propio EntityManager.
+ */
+@Component
+public class RoleCatalogListener {
+
+    @Autowired
+    @Lazy
+    private RoleCatalog roleCatalog;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        roleCatalog.reloadAfterCommit();
+    }
+}
@@ -1,31 +1,53 @@
 package com.app.Service;
 
+import com.app.config.Jfr.AuthenticateEvent;
+import com.app.config.Jfr.UserLookupEvent;
+import com.app.config.Metrics.SecurityMetrics;
+import com.app.config.Password.BoundedPasswordEncoder;
+import com.app.controller.DTO.AuthBatchResponse;
 import com.app.controller.DTO.AuthCreateUserRequest;
+import com.app.controller.DTO.AuthCreateUserResult;
 import com.app.controller.DTO.AuthLoginRequest;
+import com.app.controller.DTO.AuthRefreshRequest;
 import com.app.controller.DTO.AuthResponse;
-import com.app.persistence.Entity.RoleEntity;
 import com.app.persistence.Entity.UserEntity;
-import com.app.persistence.Repository.RoleRespository;
+import com.app.persistence.Projection.UserCredentialsRow;
 import com.app.persistence.Repository.UserRepository;
+import com.app.util.AuthorityRegistry;
+import com.app.config.Filter.JwtAuthentication;
 import com.app.util.JWTUtils;
+import com.app.util.TokenDenylist;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 /**
  * ================================================
  * UserDetailServiceImpl
@@ -39,16 +61,21 @@ import java.util.stream.Collectors;
  * 2. Autenticar usuario → authenticate
  * 3. Login y generación de token → loginUser
  * 4. Crear usuario y generar token → createUser
+ * 5. Re-hashear contraseñas con la política actual → updatePassword
+ * 6. Alta masiva de usuarios → createUsers
+ * 7. Renovar el access token con un refresh token → refresh
+ * 8. Cerrar sesión revocando los tokens → logout
  *
  * Cada mét0do interactúa con:
  * - UserRepository: para acceder a la base de datos
- * - RoleRepository: para validar roles
+ * - RoleCatalog: para validar roles sin consultar la DB
  * - PasswordEncoder: para encriptar/validar contraseñas
  * - JWTUtils: para generar y validar tokens JWT
+ * - RefreshTokenService: para emitir y rotar refresh tokens
  */
 
 @Service
-public class UserDetailServiceimpl implements UserDetailsService {
+public class UserDetailServiceimpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository; // Repositorio para acceder a los usuarios en DB
@@ -60,7 +87,43 @@ public class UserDetailServiceimpl implements UserDetailsService {
     private JWTUtils jwtUtils; // Utilidad para crear y validar tokens JWT
 
     @Autowired
-    private RoleRespository roleRespository; // Repositorio para roles
+    private RoleCatalog roleCatalog; // Roles y sus authorities en memoria
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry; // Authorities compartidas (roles y permisos)
+
+    @Autowired
+    private UserDetailsCache userDetailsCache; // Caché de UserDetails ya construidos
+
+    @Autowired
+    private SecurityMetrics securityMetrics; // Timers de búsqueda, contraseña y autenticación
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker; // Fallos de login y bloqueo de cuentas
+
+    @Autowired
+    private RefreshTokenService refreshTokenService; // Refresh tokens de un solo uso
+
+    @Autowired
+    private TokenDenylist tokenDenylist; // Access tokens revocados antes de su expiración
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Una transacción por tanda en el alta masiva
+
+    @PersistenceContext
+    private EntityManager entityManager; // Para guardar las tandas del alta masiva
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize; // Usuarios por tanda (y por lote JDBC)
+
+    @Value("${security.user-batch.max-size:5000}")
+    private int maxBatchSize; // Usuarios como máximo por petición de alta masiva
+
+    // Mismo límite que @Size en AuthCreateRoleRequest
+    private static final int MAX_ROLES_PER_USER = 3;
+
+    // Usernames por consulta al comprobar cuáles ya existen
+    private static final int EXISTING_USERNAMES_CHUNK = 1000;
 
     /**
      * =====================================================
@@ -70,43 +133,66 @@ public class UserDetailServiceimpl implements UserDetailsService {
      * Carga un usuario de la base de datos y lo adapta al modelo de Spring Security.
      *
      * Flujo:
-     * 1. Buscar el usuario en DB
-     * 2. Convertir roles y permisos en GrantedAuthority
-     * 3. Devolver UserDetails
+     * 1. Buscar el usuario en la caché (UserDetailsCache); si está, se devuelve sin ir a la DB
+     * 2. Buscar el usuario en DB con una única consulta (findCredentialsByUsername)
+     * 3. Convertir roles y permisos en GrantedAuthority
+     * 4. Guardar en caché y devolver UserDetails
      *
      * Spring Security llama automáticamente este método durante la autenticación.
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // --- Búsqueda del usuario ---
-        UserEntity userEntity = userRepository.findUserEntityByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("El usuario " + username + " no existe!"));
+        long start = System.nanoTime();
+        UserLookupEvent event = new UserLookupEvent(); // JFR, deshabilitado por defecto
+        event.begin();
 
-        // --- Convertir roles y permisos a GrantedAuthority ---
-        List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
+        // --- Caché ---
+        UserDetails cached = userDetailsCache.get(username);
+        if (cached != null) {
+            securityMetrics.recordLookup(true, true, System.nanoTime() - start);
+            event.finish("CACHED", username);
+            return cached;
+        }
 
-        // Convertir roles a "ROLE_X" (convención de Spring Security)
-        userEntity.getRoles().forEach(role ->
-                authorityList.add(new SimpleGrantedAuthority("ROLE_" + role.getRoleEnum().name()))
-        );
+        // --- Búsqueda del usuario ---
+        // Una sola consulta: cuenta, hash y nombres de roles/permisos (una fila por rol-permiso)
+        List<UserCredentialsRow> rows = userRepository.findCredentialsByUsername(username);
+        if (rows.isEmpty()) {
+            securityMetrics.recordLookup(false, false, System.nanoTime() - start);
+            event.finish("UNKNOWN_USER", username);
+            throw new UsernameNotFoundException("El usuario " + username + " no existe!");
+        }
+        UserCredentialsRow account = rows.get(0);
 
-        // Convertir permisos de cada rol a GrantedAuthority
-        userEntity.getRoles().stream()
-                .flatMap(role -> role.getPermisos().stream())
-                .forEach(permission ->
-                        authorityList.add(new SimpleGrantedAuthority(permission.getName()))
-                );
+        // --- Convertir roles y permisos a GrantedAuthority ---
+        // Primero los roles ("ROLE_X", convención de Spring Security) y después los permisos, sin repetir
+        Set<GrantedAuthority> roles = new LinkedHashSet<>();
+        Set<GrantedAuthority> permissions = new LinkedHashSet<>();
+        for (UserCredentialsRow row : rows) {
+            if (row.role() != null) {
+                roles.add(authorityRegistry.role(row.role()));
+            }
+            if (row.permission() != null) {
+                permissions.add(authorityRegistry.authority(row.permission()));
+            }
+        }
+        List<GrantedAuthority> authorityList = new ArrayList<>(roles);
+        authorityList.addAll(permissions);
 
         // --- Retornar UserDetails ---
-        return new User(
-                userEntity.getUsername(),         // username
-                userEntity.getPassword(),         // password encriptado
-                userEntity.isEnabled(),           // cuenta habilitada
-                userEntity.isAccountNoExpired(),  // cuenta no expirada
-                userEntity.isCredentialNoExpired(), // credenciales no expiradas
-                userEntity.isAccountNoLocked(),   // cuenta no bloqueada
+        UserDetails userDetails = new User(
+                account.username(),               // username
+                account.password(),               // password encriptado
+                account.enabled(),                // cuenta habilitada
+                account.accountNoExpired(),       // cuenta no expirada
+                account.credentialNoExpired(),    // credenciales no expiradas
+                account.accountNoLocked(),        // cuenta no bloqueada
                 authorityList                     // roles y permisos convertidos a GrantedAuthority
         );
+        userDetailsCache.put(userDetails);
+        securityMetrics.recordLookup(false, true, System.nanoTime() - start);
+        event.finish("FOUND", username);
+        return userDetails;
     }
 
     /**
@@ -120,7 +206,8 @@ public class UserDetailServiceimpl implements UserDetailsService {
      * 1. Llama a authenticate() para validar credenciales
      * 2. Coloca la autenticación en el SecurityContext
      * 3. Genera token JWT con JWTUtils.createToken()
-     * 4. Devuelve AuthResponse con username, token y mensaje
+     * 4. Abre una familia de refresh tokens
+     * 5. Devuelve AuthResponse con username, tokens y mensaje
      */
     public AuthResponse loginUser(AuthLoginRequest authLoginRequest) {
         String username = authLoginRequest.username(); // obtener username del request
@@ -135,8 +222,86 @@ public class UserDetailServiceimpl implements UserDetailsService {
         // Generar token JWT
         String accessToken = jwtUtils.createToken(authentication);
 
+        // Refresh token: el cliente renueva el access token sin volver a enviar la contraseña
+        // (con el nombre guardado en la DB, el mismo que lleva el JWT)
+        String refreshToken = refreshTokenService.issue(authentication.getName());
+
         // Retornar respuesta
-        return new AuthResponse(username, "Usuario autenticado correctamente", accessToken, true);
+        return new AuthResponse(authentication.getName(), "Usuario autenticado correctamente", accessToken, refreshToken, true);
+    }
+
+    /**
+     * =====================================================
+     * refresh
+     * =====================================================
+     *
+     * Renueva el access token con un refresh token (POST /auth/refresh).
+     *
+     * Flujo:
+     * 1. Consumir el refresh token (un solo uso; si ya se había usado se revoca su familia)
+     * 2. Cargar el usuario (UserDetailsCache) y comprobar que la cuenta sigue activa y sin bloquear
+     * 3. Generar un access token nuevo y el siguiente refresh token de la familia
+     *
+     * No calcula ningún hash de contraseña.
+     */
+    public AuthResponse refresh(AuthRefreshRequest authRefreshRequest) {
+        // --- 1. Consumir el refresh token ---
+        RefreshTokenStore.RefreshTokenRecord consumed = refreshTokenService.consume(authRefreshRequest.refreshToken());
+
+        // --- 2. La cuenta debe seguir pudiendo entrar ---
+        UserDetails userDetails;
+        try {
+            userDetails = this.loadUserByUsername(consumed.username());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenService.revoke(consumed);
+            throw new InvalidRefreshTokenException("Refresh token inválido");
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()
+                || loginAttemptTracker.isLocked(userDetails.getUsername())) {
+            refreshTokenService.revoke(consumed);
+            throw new InvalidRefreshTokenException("La cuenta no está disponible, vuelve a iniciar sesión");
+        }
+
+        // --- 3. Tokens nuevos ---
+        // Roles y permisos actuales (no los del token anterior)
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails.getUsername(), null, userDetails.getAuthorities());
+        String accessToken = jwtUtils.createToken(authentication);
+        String refreshToken = refreshTokenService.issueNext(consumed);
+
+        return new AuthResponse(userDetails.getUsername(), "Token renovado correctamente", accessToken, refreshToken, true);
+    }
+
+    /**
+     * =====================================================
+     * logout
+     * =====================================================
+     *
+     * Cierra la sesión (POST /auth/logout, con el access token en la cabecera).
+     *
+     * 1. Si se envía el refresh token, tiene que ser del usuario autenticado; se revoca toda su familia.
+     *    Un refresh token de otro usuario se rechaza (401) sin revocar nada.
+     * 2. El access token se añade a TokenDenylist hasta su "exp": el filtro lo rechaza desde ya.
+     *
+     * Si no hay nada que revocar (sin JWT con "jti" y sin refresh token vigente) se indica con status false
+     * (el controlador responde 400).
+     *
+     * @param authentication la del SecurityContext (JwtAuthentication si se llamó con un JWT)
+     * @param authRefreshRequest refresh token a revocar (opcional)
+     */
+    public AuthResponse logout(Authentication authentication, AuthRefreshRequest authRefreshRequest) {
+        boolean revoked = false;
+        if (authRefreshRequest != null) {
+            revoked = refreshTokenService.revoke(authRefreshRequest.refreshToken(), authentication.getName());
+        }
+        if (authentication instanceof JwtAuthentication jwtAuthentication && jwtAuthentication.getTokenId() != null) {
+            tokenDenylist.revoke(jwtAuthentication.getTokenId(), jwtAuthentication.getExpiresAtMillis());
+            revoked = true;
+        }
+        if (!revoked) {
+            return new AuthResponse(authentication.getName(), "No había ninguna sesión que cerrar", null, false);
+        }
+        return new AuthResponse(authentication.getName(), "Sesión cerrada correctamente", null, true);
     }
 
     /**
@@ -150,18 +315,63 @@ public class UserDetailServiceimpl implements UserDetailsService {
      * Flujo:
      * 1. Carga usuario desde DB
      * 2. Valida que la contraseña coincida
-     * 3. Devuelve Authentication para usar en SecurityContext
+     * 3. Si el hash guardado no cumple la política actual (coste o algoritmo), lo re-hashea
+     * 4. Devuelve Authentication para usar en SecurityContext
      */
     public Authentication authenticate(String username, String password) {
-        UserDetails userDetails = this.loadUserByUsername(username); // buscar usuario
+        long start = System.nanoTime();
+        AuthenticateEvent event = new AuthenticateEvent(); // JFR, deshabilitado por defecto
+        event.begin();
+        try {
+            loginAttemptTracker.checkNotLocked(username); // bloqueada en memoria
+
+            UserDetails userDetails = this.loadUserByUsername(username); // buscar usuario
+            if (!userDetails.isAccountNonLocked()) {
+                throw new LockedException("La cuenta del usuario " + username + " está bloqueada");
+            }
+
+            // Validación de username y password
+            if (!matches(password, userDetails.getPassword())) {
+                loginAttemptTracker.recordFailure(userDetails.getUsername());
+                throw new BadCredentialsException("Usuario o contraseña inválidos");
+            }
 
-        // Validación de username y password
-        if (userDetails == null || !passwordEncoder.matches(password, userDetails.getPassword())) {
-            throw new BadCredentialsException("Usuario o contraseña inválidos");
+            // Solo aquí tenemos la contraseña en claro, así que es el momento de actualizar el hash
+            if (passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+                userDetails = this.updatePassword(userDetails, passwordEncoder.encode(password));
+            }
+
+            // Reinicia el contador; se escribe en la DB en el siguiente flush
+            loginAttemptTracker.recordSuccess(userDetails.getUsername());
+
+            // Crear objeto Authentication para Spring Security, con el username guardado en la DB
+            // (no el tecleado): el subject del JWT y el dueño del refresh token son siempre el mismo
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails.getUsername(), userDetails.getPassword(), userDetails.getAuthorities());
+            securityMetrics.recordAuthenticate(SecurityMetrics.AuthenticateOutcome.SUCCESS, System.nanoTime() - start);
+            event.finish("SUCCESS", username);
+            return authentication;
+        } catch (UsernameNotFoundException e) {
+            securityMetrics.recordAuthenticate(SecurityMetrics.AuthenticateOutcome.UNKNOWN_USER, System.nanoTime() - start);
+            event.finish("UNKNOWN_USER", username);
+            throw e;
+        } catch (BadCredentialsException e) {
+            securityMetrics.recordAuthenticate(SecurityMetrics.AuthenticateOutcome.BAD_CREDENTIALS, System.nanoTime() - start);
+            event.finish("BAD_CREDENTIALS", username);
+            throw e;
+        } catch (LockedException e) {
+            securityMetrics.recordAuthenticate(SecurityMetrics.AuthenticateOutcome.LOCKED, System.nanoTime() - start);
+            event.finish("LOCKED", username);
+            throw e;
         }
+    }
 
-        // Crear objeto Authentication para Spring Security
-        return new UsernamePasswordAuthenticationToken(username, userDetails.getPassword(), userDetails.getAuthorities());
+    // passwordEncoder.matches medido aparte: es el coste dominante del login
+    private boolean matches(String rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = passwordEncoder.matches(rawPassword, encodedPassword);
+        securityMetrics.recordPasswordMatches(matches, System.nanoTime() - start);
+        return matches;
     }
 
     /**
@@ -172,10 +382,10 @@ public class UserDetailServiceimpl implements UserDetailsService {
      * Crea un nuevo usuario y genera un token JWT.
      *
      * Flujo:
-     * 1. Validar roles existentes en la DB
+     * 1. Validar roles existentes en RoleCatalog (sin consultar la DB)
      * 2. Crear usuario con roles y configuración de seguridad
      * 3. Guardar usuario en DB
-     * 4. Convertir roles y permisos a GrantedAuthority
+     * 4. Tomar las authorities ya calculadas del catálogo
      * 5. Generar token JWT
      * 6. Retornar AuthResponse
      */
@@ -184,45 +394,188 @@ public class UserDetailServiceimpl implements UserDetailsService {
         String password = authCreateUserRequest.password();
         List<String> roleRequest = authCreateUserRequest.roleRequest().roleListName();
 
-        // Validar roles existentes
-        Set<RoleEntity> roleEntitySet = roleRespository
-                .findRoleEntItiesByRoleEnumIn(roleRequest)
-                .stream()
-                .collect(Collectors.toSet());
+        // Validar roles existentes (catálogo en memoria)
+        List<RoleCatalog.CatalogRole> roles = roleCatalog.resolve(roleRequest);
 
-        if (roleEntitySet.isEmpty()) {
+        if (roles.isEmpty()) {
             throw new IllegalArgumentException("Los roles especificados no existen");
         }
 
-        // Crear usuario
-        UserEntity userEntity = UserEntity.builder()
+        // El hash se calcula antes de abrir la transacción para no retener la conexión
+        String encodedPassword = passwordEncoder.encode(password);
+
+        // Crear y guardar usuario: un INSERT en users y uno en user_roles por rol
+        UserEntity userCreated = userRepository.insertNewUser(UserEntity.builder()
                 .username(username)
-                .password(passwordEncoder.encode(password))
-                .roles(roleEntitySet)
+                .password(encodedPassword)
                 .isEnabled(true)
                 .accountNoLocked(true)
                 .accountNoExpired(true)
                 .credentialNoExpired(true)
-                .build();
-
-        // Guardar en DB
-        UserEntity userCreated = userRepository.save(userEntity);
+                .build(), roleCatalog.ids(roles));
+        userDetailsCache.invalidate(userCreated.getUsername());
 
-        // Convertir roles y permisos a GrantedAuthority
-        List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
-        userCreated.getRoles().forEach(role ->
-                authorityList.add(new SimpleGrantedAuthority("ROLE_" + role.getRoleEnum().name()))
-        );
-        userCreated.getRoles().stream()
-                .flatMap(role -> role.getPermisos().stream())
-                .forEach(permission -> authorityList.add(new SimpleGrantedAuthority(permission.getName())));
+        // Roles y permisos ya convertidos a GrantedAuthority
+        List<GrantedAuthority> authorityList = roleCatalog.authorities(roles);
 
         // Generar token JWT
         Authentication authentication = new UsernamePasswordAuthenticationToken(userCreated.getUsername(), userCreated.getPassword(), authorityList);
         String accessToken = jwtUtils.createToken(authentication);
 
         // Retornar respuesta
-        return new AuthResponse(userCreated.getUsername(), "Usuario creado correctamente", accessToken, true);
+        return new AuthResponse(userCreated.getUsername(), "Usuario creado correctamente", accessToken,
+                refreshTokenService.issue(userCreated.getUsername()), true);
+
+    }
+
+    /**
+     * =====================================================
+     * createUsers
+     * =====================================================
+     *
+     * Alta masiva de usuarios (POST /auth/sing-up/batch).
+     *
+     * Flujo:
+     * 1. Resolver los roles pedidos en RoleCatalog, sin consultar la DB
+     * 2. Validar cada usuario (datos, roles, duplicados en la petición y en DB)
+     * 3. Calcular los hashes en paralelo en el pool de hashing
+     * 4. Guardar en tandas de hibernate.jdbc.batch_size, una transacción por tanda,
+     *    para que Hibernate envíe los INSERT en lotes JDBC (requiere ids por secuencia)
+     * 5. Devolver un resultado por usuario, en el mismo orden que la petición
+     *
+     * Si una tanda falla (ej: un username registrado a la vez por otra petición)
+     * solo se marcan como rechazados los usuarios de esa tanda.
+     * No genera tokens: los usuarios creados hacen login después.
+     */
+    public AuthBatchResponse createUsers(List<AuthCreateUserRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "No se pueden crear mas de " + maxBatchSize + " usuarios por peticion");
+        }
+        AuthCreateUserResult[] results = new AuthCreateUserResult[requests.size()];
+
+        // --- 1 y 2. Resolver roles (catálogo en memoria) y validar cada usuario ---
+        List<PendingUser> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            AuthCreateUserRequest request = requests.get(i);
+            List<RoleCatalog.CatalogRole> roles = request != null && request.roleRequest() != null
+                    && request.roleRequest().roleListName() != null
+                    ? roleCatalog.resolve(request.roleRequest().roleListName())
+                    : List.of();
+            String rejection = validate(request, roles, seen);
+            if (rejection != null) {
+                results[i] = new AuthCreateUserResult(request != null ? request.username() : null, rejection, false);
+                continue;
+            }
+            pending.add(new PendingUser(i, request.username(), request.password(), roles));
+        }
+
+        // Usernames que ya existen en DB: una consulta por cada bloque de usernames
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < pending.size(); from += EXISTING_USERNAMES_CHUNK) {
+            List<String> usernames = pending.subList(from, Math.min(from + EXISTING_USERNAMES_CHUNK, pending.size()))
+                    .stream().map(PendingUser::username).toList();
+            existing.addAll(userRepository.findExistingUsernames(usernames));
+        }
+        List<PendingUser> toCreate = new ArrayList<>(pending.size());
+        for (PendingUser user : pending) {
+            if (existing.contains(user.username())) {
+                results[user.index()] = new AuthCreateUserResult(user.username(), "El usuario ya existe", false);
+            } else {
+                toCreate.add(user);
+            }
+        }
+
+        // --- 3. Hashes en paralelo ---
+        // Solo se calculan para los usuarios que se van a guardar
+        List<String> rawPasswords = toCreate.stream().map(PendingUser::password).toList();
+        List<String> hashes = passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder
+                ? boundedPasswordEncoder.encodeAll(rawPasswords)
+                : rawPasswords.stream().map(passwordEncoder::encode).toList();
+
+        // --- 4. Guardar en tandas ---
+        for (int from = 0; from < toCreate.size(); from += jdbcBatchSize) {
+            int to = Math.min(from + jdbcBatchSize, toCreate.size());
+            List<PendingUser> chunk = toCreate.subList(from, to);
+            List<String> chunkHashes = hashes.subList(from, to);
+            try {
+                transactionTemplate.executeWithoutResult(status -> persistChunk(chunk, chunkHashes));
+                for (PendingUser user : chunk) {
+                    userDetailsCache.invalidate(user.username());
+                    results[user.index()] = new AuthCreateUserResult(user.username(), "Usuario creado correctamente", true);
+                }
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                for (PendingUser user : chunk) {
+                    results[user.index()] = new AuthCreateUserResult(user.username(),
+                            "No se pudo guardar el usuario, reintenta la peticion", false);
+                }
+            }
+        }
+
+        // --- 5. Retornar respuesta ---
+        int created = (int) Arrays.stream(results).filter(AuthCreateUserResult::status).count();
+        return new AuthBatchResponse(results.length, created, results.length - created, List.of(results));
+    }
+
+    // Devuelve el motivo de rechazo, o null si el usuario es válido
+    private String validate(AuthCreateUserRequest request, List<RoleCatalog.CatalogRole> roles, Set<String> seen) {
+        if (request == null || request.username() == null || request.username().isBlank()
+                || request.password() == null || request.password().isBlank()) {
+            return "El username y la password son obligatorios";
+        }
+        if (roles.isEmpty()) {
+            return "Los roles especificados no existen";
+        }
+        if (request.roleRequest().roleListName().size() > MAX_ROLES_PER_USER) {
+            return "No puedes tener mas de " + MAX_ROLES_PER_USER + " roles";
+        }
+        if (!seen.add(request.username())) {
+            return "Usuario repetido en la peticion";
+        }
+        return null;
+    }
 
+    // Persiste una tanda dentro de la transacción actual y libera el contexto de persistencia
+    private void persistChunk(List<PendingUser> chunk, List<String> hashes) {
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingUser user = chunk.get(i);
+            // Se une a la transacción de la tanda; roles referenciados por id, sin cascadas
+            userRepository.insertNewUser(UserEntity.builder()
+                    .username(user.username())
+                    .password(hashes.get(i))
+                    .isEnabled(true)
+                    .accountNoLocked(true)
+                    .accountNoExpired(true)
+                    .credentialNoExpired(true)
+                    .build(), roleCatalog.ids(user.roles()));
+        }
+        // Los INSERT salen aquí agrupados en lotes; clear() evita que el dirty checking
+        // de las tandas siguientes recorra los usuarios ya guardados
+        entityManager.flush();
+        entityManager.clear();
     }
+
+    /**
+     * =====================================================
+     * updatePassword
+     * =====================================================
+     *
+     * Guarda un hash nuevo de la contraseña (mismo texto, política actual).
+     * Lo llama authenticate() y también DaoAuthenticationProvider en HTTP Basic.
+     *
+     * @param user usuario ya autenticado
+     * @param newPassword hash nuevo, ya codificado
+     * @return el usuario con el hash actualizado
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        userDetailsCache.invalidate(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    // Usuario validado pendiente de guardar; index es su posición en la petición
+    private record PendingUser(int index, String username, String password, List<RoleCatalog.CatalogRole> roles) {
     }
+}
@@ -0,0 +1,140 @@
+package com.app.Service;
+
+import com.app.util.BoundedEviction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ================================================
+ * UserDetailsCache
+ * ================================================
+ *
+ * Caché acotada y con TTL de los UserDetails que construye loadUserByUsername.
+ *
+ * Un usuario que reintenta el login o que usa HTTP Basic en cada petición
+ * pasa a costar una búsqueda en un mapa en lugar de varias consultas a MySQL.
+ *
+ * Importante:
+ * - Se guarda una copia inmutable de los datos y se devuelve un User NUEVO en cada acierto.
+ *   ProviderManager borra la contraseña del principal tras autenticar (eraseCredentials),
+ *   y si devolviéramos siempre la misma instancia borraría la de la caché.
+ * - Se invalida cuando se crea el usuario, cambia su contraseña o cambian roles/permisos.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public UserDetailsCache(@Value("${security.user-cache.max-entries:10000}") int maxEntries,
+                            @Value("${security.user-cache.ttl-ms:60000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Devuelve una copia del usuario en caché, o null si no está o ya caducó.
+     */
+    public UserDetails get(String username) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        CachedUser cached = entries.get(username);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            if (entries.remove(username, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.toUserDetails();
+    }
+
+    /**
+     * Guarda los datos del usuario recién cargado de la base de datos.
+     */
+    public void put(UserDetails userDetails) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            evictions.add(BoundedEviction.makeRoom(entries, maxEntries, entry -> entry.expiresAtMillis() <= now));
+        }
+        entries.put(userDetails.getUsername(), CachedUser.of(userDetails, now + ttlMillis));
+    }
+
+    /**
+     * Invalida un usuario (alta, cambio de contraseña, bloqueo o cambio de roles).
+     */
+    public void invalidate(String username) {
+        if (entries.remove(username) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Invalida todos los usuarios, por ejemplo cuando cambian los permisos de un rol.
+     */
+    public void invalidateAll() {
+        int size = entries.size();
+        entries.clear();
+        invalidations.add(size);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Copia inmutable de los datos de un UserDetails
+    private record CachedUser(String username, String password, boolean enabled, boolean accountNonExpired,
+                              boolean credentialsNonExpired, boolean accountNonLocked,
+                              List<GrantedAuthority> authorities, long expiresAtMillis) {
+
+        static CachedUser of(UserDetails user, long expiresAtMillis) {
+            return new CachedUser(user.getUsername(), user.getPassword(), user.isEnabled(),
+                    user.isAccountNonExpired(), user.isCredentialsNonExpired(), user.isAccountNonLocked(),
+                    List.copyOf(user.getAuthorities()), expiresAtMillis);
+        }
+
+        UserDetails toUserDetails() {
+            return new User(username, password, enabled, accountNonExpired,
+                    credentialsNonExpired, accountNonLocked, authorities);
+        }
+    }
+}
@@ -3,23 +3,29 @@ import com.app.persistence.Entity.PermissionEntity;
 import com.app.persistence.Entity.RoleEntity;
 import com.app.persistence.Entity.RoleEnum;
 import com.app.persistence.Entity.UserEntity;
+import com.app.persistence.Repository.RoleRespository;
 import com.app.persistence.Repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.List;
 import java.util.Set;
 @SpringBootApplication
+@EnableScheduling // LoginThrottle: limpieza periódica de buckets inactivos
 public class SpringSecurityJwtApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(SpringSecurityJwtApplication.class, args);
 	}
 	// Inicializa datos de ejemplo (permisos, roles y usuarios) al iniciar la aplicación.
+	// Se ejecuta primero: PerfDataSeeder (perfil perf) necesita los roles ya creados.
     @Bean
-    CommandLineRunner init(UserRepository userRepository) {
+    @Order(0)
+    CommandLineRunner init(UserRepository userRepository, RoleRespository roleRespository) {
         return args -> {
             // --- Creación de permisos ---
             // Los permisos se crean primero, ya que los roles dependen de ellos.
@@ -96,7 +102,9 @@ public class SpringSecurityJwtApplication {
                     .build();
 
             // --- Persistencia de datos ---
-            // Se guardan todos los usuarios (junto con sus roles y permisos asociados) en la base de datos.
+            // Primero los roles (con sus permisos en cascada) y después los usuarios:
+            // UserEntity.roles no tiene cascada, así que los roles deben existir antes.
+            roleRespository.saveAll(List.of(roleAdmin, roleUser, roleDeveloper, roleInvited));
             userRepository.saveAll(List.of(userDuzz, userPaul, userNoe, userSoplaGaita));
         };
     }
@@ -0,0 +1,272 @@
+package com.app.config.Authorization;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ================================================================
+ * RouteAuthorizationTable
+ * ================================================================
+ *
+ * Tabla de autorización compilada: resuelve la regla de una petición con un recorrido
+ * de un árbol (trie) por segmentos de la ruta, en lugar de probar los requestMatchers uno a uno.
+ *
+ * Reglas:
+ * - Se declaran en orden, igual que los requestMatchers, y gana la PRIMERA que coincide
+ *   (cada regla guarda su posición y el recorrido se queda con la menor).
+ * - Patrones admitidos:
+ *     "/a/b"     → ruta exacta
+ *     "/a/{id}"  → un segmento cualquiera (también "*")
+ *     "/a/**"    → "/a" y todo lo que cuelga de "/a/"
+ *   Cualquier otro patrón se rechaza al arrancar.
+ * - Método HTTP opcional (null = cualquier método).
+ * - Si ninguna regla coincide se aplica la regla por defecto (anyRequest).
+ *
+ * La ruta es la de la petición sin el context path, con cada segmento decodificado,
+ * igual que la comparan los requestMatchers.
+ *
+ * Uso en SecurityConfig:
+ *   http.anyRequest().access(routeAuthorizationTable);
+ * y JwtTokenValidator consulta isPermitAll() para no validar el token en rutas públicas.
+ */
+public final class RouteAuthorizationTable implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // Reglas fijas: permitAll() y denyAll()
+    private static final AuthorizationManager<RequestAuthorizationContext> PERMIT_ALL = (authentication, context) -> GRANTED;
+    private static final AuthorizationManager<RequestAuthorizationContext> DENY_ALL = (authentication, context) -> DENIED;
+
+    // Un árbol por método y otro para las reglas sin método
+    private final Map<String, Node> byMethod;
+    private final Node anyMethod;
+    private final Rule fallback;
+    private final List<Rule> rules;
+
+    private RouteAuthorizationTable(Map<String, Node> byMethod, Node anyMethod, Rule fallback, List<Rule> rules) {
+        this.byMethod = byMethod;
+        this.anyMethod = anyMethod;
+        this.fallback = fallback;
+        this.rules = rules;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return resolve(context.getRequest()).manager().check(authentication, context);
+    }
+
+    /**
+     * true si la ruta de la petición es pública: no hace falta validar el token.
+     */
+    public boolean isPermitAll(HttpServletRequest request) {
+        return resolve(request).permitAll();
+    }
+
+    /**
+     * Regla que aplica a la petición (la primera declarada que coincide, o la de por defecto).
+     */
+    public Rule resolve(HttpServletRequest request) {
+        return resolve(request.getMethod(), pathWithinApplication(request));
+    }
+
+    /**
+     * Regla que aplica a un método y una ruta ya sin context path.
+     */
+    public Rule resolve(String method, String path) {
+        List<String> segments = segments(path);
+        Rule best = null;
+        Node methodRoot = byMethod.get(method);
+        if (methodRoot != null) {
+            best = methodRoot.match(segments, 0, null);
+        }
+        best = anyMethod.match(segments, 0, best);
+        return best != null ? best : fallback;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)
+                ? uri.substring(contextPath.length())
+                : uri;
+    }
+
+    // "/a/b" → [a, b]; "/" → []; "/a/" → [a, ""] (la barra final no coincide con "/a", como en PathPattern)
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>(8);
+        int start = path.startsWith("/") ? 1 : 0;
+        if (start >= path.length()) {
+            return segments;
+        }
+        while (true) {
+            int slash = path.indexOf('/', start);
+            String segment = slash < 0 ? path.substring(start) : path.substring(start, slash);
+            segments.add(segment.indexOf('%') >= 0 ? UriUtils.decode(segment, StandardCharsets.UTF_8) : segment);
+            if (slash < 0) {
+                return segments;
+            }
+            start = slash + 1;
+        }
+    }
+
+    /**
+     * Regla compilada.
+     *
+     * @param order posición en la declaración (gana la menor)
+     * @param method método HTTP, o null para cualquiera
+     * @param pattern patrón de la ruta
+     * @param manager decisión de acceso
+     * @param permitAll la regla es permitAll() (JwtTokenValidator no valida el token)
+     */
+    public record Rule(int order, String method, String pattern,
+                       AuthorizationManager<RequestAuthorizationContext> manager, boolean permitAll) {
+
+        // Se queda con la regla declarada antes
+        static Rule first(Rule current, Rule candidate) {
+            return candidate != null && (current == null || candidate.order() < current.order()) ? candidate : current;
+        }
+    }
+
+    // Nodo del árbol: un segmento de la ruta
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;   // "{id}" o "*"
+        private Rule exact;      // la ruta termina aquí
+        private Rule prefix;     // "/**" colgando de aquí
+
+        // Recorre el árbol y devuelve la regla de menor orden que coincide (o best)
+        Rule match(List<String> segments, int index, Rule best) {
+            best = Rule.first(best, prefix);
+            if (index == segments.size()) {
+                return Rule.first(best, exact);
+            }
+            String segment = segments.get(index);
+            Node child = children.get(segment);
+            if (child != null) {
+                best = child.match(segments, index + 1, best);
+            }
+            if (wildcard != null && !segment.isEmpty()) {
+                best = wildcard.match(segments, index + 1, best);
+            }
+            return best;
+        }
+
+        void add(List<String> patternSegments, Rule rule) {
+            Node node = this;
+            boolean isPrefix = !patternSegments.isEmpty() && "**".equals(patternSegments.get(patternSegments.size() - 1));
+            int end = isPrefix ? patternSegments.size() - 1 : patternSegments.size();
+            for (int i = 0; i < end; i++) {
+                String segment = patternSegments.get(i);
+                if (segment.contains("*") && !"*".equals(segment) || segment.contains("{") && !isVariable(segment)) {
+                    throw new IllegalArgumentException("Patrón no soportado por RouteAuthorizationTable: " + rule.pattern());
+                }
+                if ("*".equals(segment) || isVariable(segment)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Node();
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            // Si dos reglas tienen el mismo patrón, la segunda nunca se aplica (igual que con requestMatchers)
+            if (isPrefix) {
+                node.prefix = Rule.first(node.prefix, rule);
+            } else {
+                node.exact = Rule.first(node.exact, rule);
+            }
+        }
+
+        private static boolean isVariable(String segment) {
+            return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
+        }
+    }
+
+    /**
+     * ================================================================
+     * Builder
+     * ================================================================
+     *
+     * Declara las reglas en el mismo orden que se escribirían los requestMatchers.
+     */
+    public static final class Builder {
+
+        private final List<Rule> rules = new ArrayList<>();
+        private Rule fallback;
+
+        private Builder() {
+        }
+
+        public Builder access(HttpMethod method, String pattern, AuthorizationManager<RequestAuthorizationContext> manager) {
+            return add(method, pattern, manager, false);
+        }
+
+        public Builder permitAll(HttpMethod method, String... patterns) {
+            for (String pattern : patterns) {
+                add(method, pattern, PERMIT_ALL, true);
+            }
+            return this;
+        }
+
+        public Builder denyAll(HttpMethod method, String... patterns) {
+            for (String pattern : patterns) {
+                add(method, pattern, DENY_ALL, false);
+            }
+            return this;
+        }
+
+        /**
+         * Regla para las peticiones que no coinciden con ninguna otra (anyRequest).
+         */
+        public Builder anyRequest(AuthorizationManager<RequestAuthorizationContext> manager) {
+            this.fallback = new Rule(Integer.MAX_VALUE, null, "/**", manager, manager == PERMIT_ALL);
+            return this;
+        }
+
+        public Builder anyRequestDenyAll() {
+            return anyRequest(DENY_ALL);
+        }
+
+        public RouteAuthorizationTable build() {
+            Map<String, Node> byMethod = new HashMap<>();
+            Node anyMethod = new Node();
+            for (Rule rule : rules) {
+                Node root = rule.method() != null ? byMethod.computeIfAbsent(rule.method(), m -> new Node()) : anyMethod;
+                root.add(segments(rule.pattern()), rule);
+            }
+            Rule defaultRule = fallback != null ? fallback : new Rule(Integer.MAX_VALUE, null, "/**", DENY_ALL, false);
+            return new RouteAuthorizationTable(byMethod, anyMethod, defaultRule, List.copyOf(rules));
+        }
+
+        private Builder add(HttpMethod method, String pattern, AuthorizationManager<RequestAuthorizationContext> manager,
+                            boolean permitAll) {
+            if (!pattern.startsWith("/")) {
+                throw new IllegalArgumentException("El patrón debe empezar por '/': " + pattern);
+            }
+            rules.add(new Rule(rules.size(), method != null ? method.name() : null, pattern, manager, permitAll));
+            return this;
+        }
+    }
+}
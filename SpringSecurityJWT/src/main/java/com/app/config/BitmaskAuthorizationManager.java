@@ -0,0 +1,91 @@
+package com.app.config;
+
+import com.app.config.Filter.JwtAuthentication;
+import com.app.persistence.Entity.PermissionEnum;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.util.AuthorityRegistry;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * ================================================================
+ * BitmaskAuthorizationManager
+ * ================================================================
+ *
+ * AuthorizationManager que resuelve hasRole / hasAuthority con una sola
+ * operación AND sobre la máscara de roles y permisos del usuario.
+ *
+ * - Si la autenticación viene del JWT (JwtAuthentication), la máscara ya está calculada.
+ * - En otro caso (ej: HTTP Basic) se calcula a partir de sus authorities.
+ *
+ * Uso en SecurityConfig:
+ *   http.requestMatchers(HttpMethod.PATCH, "/method/patch")
+ *       .access(BitmaskAuthorizationManager.hasAuthority(PermissionEnum.REFACTOR));
+ */
+public final class BitmaskAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    // Se concede el acceso si el usuario tiene al menos uno de estos bits
+    private final long requiredMask;
+    private final AuthorizationDecision granted = new AuthorizationDecision(true);
+    private final AuthorizationDecision denied = new AuthorizationDecision(false);
+
+    private BitmaskAuthorizationManager(long requiredMask) {
+        this.requiredMask = requiredMask;
+    }
+
+    /**
+     * Equivalente a hasRole(role).
+     */
+    public static <T> BitmaskAuthorizationManager<T> hasRole(RoleEnum role) {
+        return new BitmaskAuthorizationManager<>(AuthorityRegistry.bit(role));
+    }
+
+    /**
+     * Equivalente a hasAnyRole(roles...).
+     */
+    public static <T> BitmaskAuthorizationManager<T> hasAnyRole(RoleEnum... roles) {
+        long mask = 0L;
+        for (RoleEnum role : roles) {
+            mask |= AuthorityRegistry.bit(role);
+        }
+        return new BitmaskAuthorizationManager<>(mask);
+    }
+
+    /**
+     * Equivalente a hasAuthority(permission).
+     */
+    public static <T> BitmaskAuthorizationManager<T> hasAuthority(PermissionEnum permission) {
+        return new BitmaskAuthorizationManager<>(AuthorityRegistry.bit(permission));
+    }
+
+    /**
+     * Equivalente a hasAnyAuthority(permissions...).
+     */
+    public static <T> BitmaskAuthorizationManager<T> hasAnyAuthority(PermissionEnum... permissions) {
+        long mask = 0L;
+        for (PermissionEnum permission : permissions) {
+            mask |= AuthorityRegistry.bit(permission);
+        }
+        return new BitmaskAuthorizationManager<>(mask);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()) {
+            return denied;
+        }
+        long userMask = current instanceof JwtAuthentication jwtAuthentication
+                ? jwtAuthentication.getAuthorityMask()
+                : AuthorityRegistry.maskOf(current.getAuthorities());
+        return (userMask & requiredMask) != 0 ? granted : denied;
+    }
+
+    @Override
+    public String toString() {
+        return "BitmaskAuthorizationManager[requiredMask=" + Long.toBinaryString(requiredMask) + "]";
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.config.Filter;
+
+import com.app.config.Password.PasswordHashingOverloadedException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import java.io.IOException;
+
+/**
+ * ================================================================
+ * HashingOverloadAuthenticationEntryPoint
+ * ================================================================
+ *
+ * Entry point de HTTP Basic.
+ *
+ * BasicAuthenticationFilter envía cualquier AuthenticationException al entry point, y el de
+ * Spring responde siempre 401. Si la causa es que el pool de hashing está saturado
+ * (PasswordHashingOverloadedException) las credenciales no se llegaron a comprobar:
+ * se responde 503 con Retry-After, igual que AuthExceptionHandler en /auth/log-in.
+ *
+ * El resto de fallos van al BasicAuthenticationEntryPoint de siempre (401 + WWW-Authenticate).
+ */
+public class HashingOverloadAuthenticationEntryPoint implements AuthenticationEntryPoint {
+
+    private final AuthenticationEntryPoint delegate;
+
+    public HashingOverloadAuthenticationEntryPoint(String realmName) {
+        BasicAuthenticationEntryPoint basic = new BasicAuthenticationEntryPoint();
+        basic.setRealmName(realmName);
+        this.delegate = basic;
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException, ServletException {
+        PasswordHashingOverloadedException overloaded = overloaded(authException);
+        if (overloaded != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, overloaded.getMessage());
+            return;
+        }
+        delegate.commence(request, response, authException);
+    }
+
+    // DaoAuthenticationProvider puede envolverla en una InternalAuthenticationServiceException
+    private static PasswordHashingOverloadedException overloaded(AuthenticationException exception) {
+        if (exception instanceof PasswordHashingOverloadedException overloaded) {
+            return overloaded;
+        }
+        return exception.getCause() instanceof PasswordHashingOverloadedException overloaded ? overloaded : null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.app.config.Filter;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * ================================================================
+ * JwtAuthentication
+ * ================================================================
+ *
+ * Authentication inmutable que JwtTokenValidator coloca en el SecurityContext.
+ *
+ * A diferencia de UsernamePasswordAuthenticationToken, no copia la colección de
+ * authorities: usa directamente la lista compartida de AuthorityRegistry,
+ * que ya es inmutable. No guarda credenciales (el token no contiene contraseña).
+ *
+ * También guarda la máscara de bits de roles y permisos, que usa
+ * BitmaskAuthorizationManager para autorizar con una sola operación AND,
+ * y el "jti" y la expiración del token para poder revocarlo en el logout.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private final String username;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final long authorityMask;
+    private final String tokenId;
+    private final long expiresAtMillis;
+
+    public JwtAuthentication(String username, Collection<? extends GrantedAuthority> authorities, long authorityMask) {
+        this(username, authorities, authorityMask, null, 0L);
+    }
+
+    public JwtAuthentication(String username, Collection<? extends GrantedAuthority> authorities, long authorityMask,
+                             String tokenId, long expiresAtMillis) {
+        this.username = username;
+        this.authorities = authorities;
+        this.authorityMask = authorityMask;
+        this.tokenId = tokenId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    /**
+     * Máscara de roles y permisos (ver AuthorityRegistry).
+     */
+    public long getAuthorityMask() {
+        return authorityMask;
+    }
+
+    /**
+     * Claim "jti" del token, o null si no tiene.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Instante "exp" del token en milisegundos (0 si no tiene).
+     */
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        // El token ya fue verificado y el objeto es compartido: no se puede modificar
+        throw new IllegalArgumentException("JwtAuthentication es inmutable");
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof JwtAuthentication that)) {
+            return false;
+        }
+        return username.equals(that.username) && authorities.equals(that.authorities);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, authorities);
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication [Principal=" + username + ", Authorities=" + authorities + "]";
+    }
+}
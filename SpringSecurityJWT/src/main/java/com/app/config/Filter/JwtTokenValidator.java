@@ -1,6 +1,13 @@
 package com.app.config.Filter;
 
+import com.app.config.Authorization.RouteAuthorizationTable;
+import com.app.config.Jfr.JwtFilterEvent;
+import com.app.config.Metrics.SecurityMetrics;
+import com.app.util.AuthorityRegistry;
 import com.app.util.JWTUtils;
+import com.app.util.TokenDenylist;
+import com.app.util.TokenValidationResult;
+import com.app.util.VerifiedTokenCache;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,10 +15,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -29,24 +34,45 @@ import java.util.Collection;
  *
  * Flujo general:
  * 1. Extraer el token JWT del header de la petición (Authorization o Proxy-Authorization).
- * 2. Quitar el prefijo "Bearer ".
- * 3. Validar el token usando JWTUtils.validateToken().
+ * 2. Quitar el prefijo "Bearer " y revisar la estructura del token (sin criptografía).
+ * 3. Buscar el token en VerifiedTokenCache; si no está, validarlo con JWTUtils.verify().
  * 4. Extraer username y roles del token.
- * 5. Convertir roles a GrantedAuthority para Spring Security.
- * 6. Crear Authentication y asignarlo al SecurityContext.
- * 7. Continuar con la cadena de filtros.
+ * 5. Convertir roles a GrantedAuthority compartidas usando AuthorityRegistry.
+ * 6. Rechazar el token si su "jti" está en TokenDenylist (también si venía de la caché).
+ * 7. Crear Authentication (JwtAuthentication) y asignarlo al SecurityContext.
+ * 8. Continuar con la cadena de filtros.
  *
  * Nota:
  * - Se ejecuta antes de los controladores para que cualquier endpoint protegido
  *   ya tenga al usuario autenticado en el SecurityContext.
- * - Si el token es inválido o nulo, la petición seguirá el flujo de filtros
+ * - Si no hay token, la petición seguirá el flujo de filtros
  *   y será rechazada por Spring Security si el endpoint requiere autenticación.
+ * - Si el token es inválido se responde 401 directamente, sin lanzar excepciones.
+ * - Con RouteAuthorizationTable, las rutas permitAll (ej: POST /auth/log-in) no pasan por el filtro.
  */
 public class JwtTokenValidator extends OncePerRequestFilter {
 
+    // Cabecera de respuesta para tokens rechazados (RFC 6750)
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
     // JWTUtils se encarga de validar y extraer datos del token
     private JWTUtils jwtUtils;
 
+    // Caché de tokens ya verificados (null = sin caché, se valida siempre)
+    private VerifiedTokenCache tokenCache;
+
+    // Registro de authorities compartidas
+    private AuthorityRegistry authorityRegistry;
+
+    // Timers por resultado (security.jwt.filter y security.jwt.verify)
+    private SecurityMetrics metrics;
+
+    // Tabla de autorización compilada (null = se filtran todas las peticiones)
+    private RouteAuthorizationTable routes;
+
+    // Tokens revocados antes de su expiración (null = no se revocan tokens)
+    private TokenDenylist denylist;
+
     /**
      * Constructor
      * JWTUtils no es un Bean de Spring, por eso se inyecta manualmente.
@@ -54,7 +80,71 @@ public class JwtTokenValidator extends OncePerRequestFilter {
      * @param jwtUtils instancia de JWTUtils
      */
     public JwtTokenValidator(JWTUtils jwtUtils) {
+        this(jwtUtils, null, new AuthorityRegistry(), SecurityMetrics.noop());
+    }
+
+    /**
+     * Constructor con caché de tokens verificados.
+     *
+     * @param jwtUtils instancia de JWTUtils
+     * @param tokenCache caché de tokens ya verificados
+     * @param authorityRegistry registro de authorities compartidas
+     */
+    public JwtTokenValidator(JWTUtils jwtUtils, VerifiedTokenCache tokenCache, AuthorityRegistry authorityRegistry) {
+        this(jwtUtils, tokenCache, authorityRegistry, SecurityMetrics.noop());
+    }
+
+    /**
+     * Constructor con caché de tokens verificados y métricas.
+     *
+     * @param jwtUtils instancia de JWTUtils
+     * @param tokenCache caché de tokens ya verificados
+     * @param authorityRegistry registro de authorities compartidas
+     * @param metrics timers de validación por resultado
+     */
+    public JwtTokenValidator(JWTUtils jwtUtils, VerifiedTokenCache tokenCache, AuthorityRegistry authorityRegistry,
+                             SecurityMetrics metrics) {
+        this(jwtUtils, tokenCache, authorityRegistry, metrics, null);
+    }
+
+    /**
+     * Constructor con caché, métricas y tabla de autorización.
+     *
+     * @param jwtUtils instancia de JWTUtils
+     * @param tokenCache caché de tokens ya verificados
+     * @param authorityRegistry registro de authorities compartidas
+     * @param metrics timers de validación por resultado
+     * @param routes tabla de autorización; sus rutas permitAll no validan el token
+     */
+    public JwtTokenValidator(JWTUtils jwtUtils, VerifiedTokenCache tokenCache, AuthorityRegistry authorityRegistry,
+                             SecurityMetrics metrics, RouteAuthorizationTable routes) {
+        this(jwtUtils, tokenCache, authorityRegistry, metrics, routes, null);
+    }
+
+    /**
+     * Constructor con caché, métricas, tabla de autorización y lista de tokens revocados.
+     *
+     * @param jwtUtils instancia de JWTUtils
+     * @param tokenCache caché de tokens ya verificados
+     * @param authorityRegistry registro de authorities compartidas
+     * @param metrics timers de validación por resultado
+     * @param routes tabla de autorización; sus rutas permitAll no validan el token
+     * @param denylist tokens revocados por logout
+     */
+    public JwtTokenValidator(JWTUtils jwtUtils, VerifiedTokenCache tokenCache, AuthorityRegistry authorityRegistry,
+                             SecurityMetrics metrics, RouteAuthorizationTable routes, TokenDenylist denylist) {
         this.jwtUtils = jwtUtils;
+        this.tokenCache = tokenCache;
+        this.authorityRegistry = authorityRegistry;
+        this.metrics = metrics;
+        this.routes = routes;
+        this.denylist = denylist;
+    }
+
+    // Rutas públicas: el resultado no depende del token, así que no se valida
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return routes != null && routes.isPermitAll(request);
     }
 
     /**
@@ -79,35 +169,85 @@ public class JwtTokenValidator extends OncePerRequestFilter {
         // --- 1. Extraer token del header ---
         // El token JWT normalmente se envía en Proxy-Authorization o Authorization
         // con formato: "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9..."
-        String jwtToken = request.getHeader(HttpHeaders.PROXY_AUTHORIZATION);
+        String header = request.getHeader(HttpHeaders.PROXY_AUTHORIZATION);
 
-        if (jwtToken != null) { // Solo procesamos si existe un token
-            // --- 2. Quitar prefijo "Bearer " ---
-            jwtToken = jwtToken.substring(7); // Los primeros 7 caracteres son "Bearer "
+        if (header != null) { // Solo procesamos si existe un token
+            long start = System.nanoTime();
+            JwtFilterEvent event = new JwtFilterEvent(); // JFR, deshabilitado por defecto
+            event.begin();
+
+            // --- 2. Quitar prefijo "Bearer " y revisar la estructura ---
+            // Un header sin prefijo o un token mal formado se rechaza antes de cualquier cálculo
+            String jwtToken = JWTUtils.extractBearerToken(header);
+            if (!JWTUtils.isWellFormed(jwtToken)) {
+                metrics.recordFilter(TokenValidationResult.Outcome.MALFORMED, System.nanoTime() - start);
+                event.finish(TokenValidationResult.Outcome.MALFORMED.name(), null);
+                reject(response);
+                return;
+            }
 
             // --- 3. Validar el token ---
-            // Verifica firma, expiración y emisor
-            DecodedJWT decodedJWT = jwtUtils.validateToken(jwtToken);
+            // Si ya fue verificado antes, reutilizamos username y authorities sin recalcular la firma
+            VerifiedTokenCache.VerifiedToken verified = tokenCache != null ? tokenCache.get(jwtToken) : null;
+            boolean cached = verified != null;
+
+            if (!cached) {
+                // Verifica firma, expiración y emisor sin lanzar excepciones
+                long verifyStart = System.nanoTime();
+                TokenValidationResult result = jwtUtils.verify(jwtToken);
+                long verifyEnd = System.nanoTime();
+                metrics.recordVerify(result.getOutcome(), verifyEnd - verifyStart);
+                if (!result.isValid()) {
+                    metrics.recordFilter(result.getOutcome(), verifyEnd - start);
+                    event.finish(result.getOutcome().name(), null);
+                    reject(response);
+                    return;
+                }
+                DecodedJWT decodedJWT = result.getDecodedJWT();
 
-            // --- 4. Extraer información del token ---
-            String username = jwtUtils.extractUsername(decodedJWT); // obtener username
-            String stringAuthorities = jwtUtils.getSpecificClaim(decodedJWT, "authorities").asString(); // obtener roles/permissions
+                // --- 4. Extraer información del token ---
+                String username = jwtUtils.extractUsername(decodedJWT); // obtener username
 
-            // --- 5. Convertir roles a GrantedAuthority ---
-            // Spring Security requiere que los roles y permisos sean objetos GrantedAuthority
-            // La función commaSeparatedStringToAuthorityList convierte un string "ROLE_ADMIN,READ" en Collection<GrantedAuthority>
-            Collection<? extends GrantedAuthority> authorities =
-                    AuthorityUtils.commaSeparatedStringToAuthorityList(stringAuthorities);
+                // --- 5. Convertir roles a GrantedAuthority ---
+                // Spring Security requiere que los roles y permisos sean objetos GrantedAuthority
+                // Se leen del claim de texto ("ROLE_ADMIN,READ") o de la máscara de bits,
+                // y AuthorityRegistry devuelve una lista inmutable ya compartida
+                Collection<? extends GrantedAuthority> authorities = jwtUtils.extractAuthorities(decodedJWT, authorityRegistry);
+                long authorityMask = AuthorityRegistry.maskOf(authorities);
 
-            // --- 6. Crear objeto Authentication ---
-            // Creamos un UsernamePasswordAuthenticationToken con:
+                // Un token sin "exp" nunca se guarda en caché
+                long expiresAt = decodedJWT.getExpiresAt() != null ? decodedJWT.getExpiresAt().getTime() : 0L;
+                verified = tokenCache != null
+                        ? tokenCache.put(jwtToken, username, authorities, authorityMask, expiresAt, decodedJWT.getId())
+                        : new VerifiedTokenCache.VerifiedToken(username, authorities, authorityMask, expiresAt, decodedJWT.getId());
+            }
+
+            // --- 6. Tokens revocados ---
+            // La caché no sabe de revocaciones: se consulta siempre (el filtro de Bloom lo hace casi gratis)
+            if (denylist != null && denylist.isRevoked(verified.tokenId())) {
+                metrics.recordFilter(TokenValidationResult.Outcome.REVOKED, System.nanoTime() - start);
+                event.finish(TokenValidationResult.Outcome.REVOKED.name(), verified.username());
+                reject(response);
+                return;
+            }
+            if (cached) {
+                metrics.recordFilterCached(System.nanoTime() - start);
+                event.finish("CACHED", verified.username());
+            } else {
+                metrics.recordFilter(TokenValidationResult.Outcome.VALID, System.nanoTime() - start);
+                event.finish(TokenValidationResult.Outcome.VALID.name(), verified.username());
+            }
+
+            // --- 7. Crear objeto Authentication ---
+            // Creamos un JwtAuthentication con:
             // - username
-            // - password null (por seguridad, no se almacena la contraseña)
-            // - authorities (roles y permisos)
-            Authentication authentication =
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
+            // - sin password (por seguridad, no se almacena la contraseña)
+            // - authorities (roles y permisos), sin copiarlas
+            // - jti y expiración, para poder revocarlo en el logout
+            Authentication authentication = new JwtAuthentication(verified.username(), verified.authorities(),
+                    verified.authorityMask(), verified.tokenId(), verified.expiresAtMillis());
 
-            // --- 7. Asignar Authentication al SecurityContext ---
+            // --- 8. Asignar Authentication al SecurityContext ---
             // Esto permite que Spring Security considere al usuario como autenticado
             SecurityContext context = SecurityContextHolder.getContext();
             context.setAuthentication(authentication);
@@ -116,9 +256,16 @@ public class JwtTokenValidator extends OncePerRequestFilter {
             SecurityContextHolder.setContext(context);
         }
 
-        // --- 8. Continuar con la cadena de filtros ---
-        // Si el token era nulo o inválido, la petición seguirá y será rechazada
+        // --- 9. Continuar con la cadena de filtros ---
+        // Si el token era nulo, la petición seguirá y será rechazada
         // automáticamente si el endpoint requiere autenticación
         filterChain.doFilter(request, response);
     }
+
+    // Responde 401 sin continuar la cadena de filtros
+    private void reject(HttpServletResponse response) {
+        SecurityContextHolder.clearContext();
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+    }
 }
@@ -0,0 +1,76 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ================================================================
+ * AuthEvent
+ * ================================================================
+ *
+ * Base de los eventos de Java Flight Recorder del camino de autenticación.
+ *
+ * Cada evento lleva la duración (la calcula JFR), el resultado y un hash del username
+ * (nunca el username en claro), para poder cruzar un pico de latencia con las pausas
+ * de GC, los bloqueos o los hilos aparcados de la misma grabación.
+ *
+ * Coste:
+ * - Deshabilitados por defecto (@Enabled(false)); se activan con src/main/resources/jfr/auth.jfc:
+ *   -XX:StartFlightRecording:settings=default,settings=src/main/resources/jfr/auth.jfc
+ * - Con el evento deshabilitado, begin()/end()/shouldCommit() no hacen nada y el JIT
+ *   elimina el objeto (no escapa del método), así que el camino normal no cambia.
+ * - Outcome y hash del username solo se calculan dentro de shouldCommit().
+ *
+ * Uso:
+ *   UserLookupEvent event = new UserLookupEvent();
+ *   event.begin();
+ *   ...
+ *   event.finish("FOUND", username);
+ */
+@Category({"Application", "Security"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class AuthEvent extends Event {
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Username Hash")
+    String usernameHash;
+
+    /**
+     * Cierra el evento y, solo si JFR lo va a grabar, rellena sus campos y lo emite.
+     *
+     * @param outcome resultado de la etapa (ej: "VALID", "BAD_CREDENTIALS")
+     * @param username usuario afectado, o null si no se conoce
+     */
+    public final void finish(String outcome, String username) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.usernameHash = hash(username);
+            commit();
+        }
+    }
+
+    // Primeros 8 bytes del SHA-256 del username, en hexadecimal
+    static String hash(String username) {
+        if (username == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(username.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+    }
+}
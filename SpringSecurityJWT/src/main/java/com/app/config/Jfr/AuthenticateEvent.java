@@ -0,0 +1,15 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Login completo en UserDetailServiceimpl.authenticate (búsqueda + contraseña + re-hash).
+ * Outcome: SUCCESS, BAD_CREDENTIALS, UNKNOWN_USER.
+ */
+@Name("com.app.security.Authenticate")
+@Label("Authenticate")
+@Description("Comprobación de credenciales en UserDetailServiceimpl.authenticate")
+public class AuthenticateEvent extends AuthEvent {
+}
@@ -0,0 +1,15 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Validación del JWT en JwtTokenValidator (caché + firma + authorities).
+ * Outcome: CACHED, VALID, MALFORMED, BAD_SIGNATURE, EXPIRED, INVALID_CLAIMS.
+ */
+@Name("com.app.security.JwtFilter")
+@Label("JWT Filter")
+@Description("Validación del JWT de una petición en JwtTokenValidator")
+public class JwtFilterEvent extends AuthEvent {
+}
@@ -0,0 +1,35 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Hash de una contraseña en BoundedPasswordEncoder, desde el hilo que llama:
+ * incluye la espera en la cola del pool. El encoder no conoce el usuario, así que
+ * el hash del username va vacío; el AuthenticateEvent del mismo hilo lo contiene.
+ *
+ * Operation: ENCODE, MATCHES.
+ * Outcome: ENCODED, VALID, BAD_CREDENTIALS, OVERLOADED, FAILED.
+ */
+@Name("com.app.security.PasswordHash")
+@Label("Password Hash")
+@Description("Cálculo o comprobación de un hash de contraseña en BoundedPasswordEncoder")
+public class PasswordHashEvent extends AuthEvent {
+
+    @Label("Operation")
+    String operation;
+
+    /**
+     * Igual que finish(outcome, null), indicando además la operación.
+     * Tiene otro nombre para no sobrescribir finish(outcome, username) con los argumentos en otro orden.
+     */
+    public void finishOperation(String operation, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
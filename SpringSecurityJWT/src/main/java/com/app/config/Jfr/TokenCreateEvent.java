@@ -0,0 +1,14 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Firma de un JWT nuevo en JWTUtils.createToken. Outcome: CREATED.
+ */
+@Name("com.app.security.TokenCreate")
+@Label("JWT Create")
+@Description("Creación y firma de un JWT en JWTUtils.createToken")
+public class TokenCreateEvent extends AuthEvent {
+}
@@ -0,0 +1,15 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Validación de un JWT en JWTUtils.validateToken.
+ * Outcome: VALID, MALFORMED, BAD_SIGNATURE, EXPIRED, INVALID_CLAIMS.
+ */
+@Name("com.app.security.TokenValidate")
+@Label("JWT Validate")
+@Description("Validación de un JWT en JWTUtils.validateToken")
+public class TokenValidateEvent extends AuthEvent {
+}
@@ -0,0 +1,14 @@
+package com.app.config.Jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Carga del usuario en loadUserByUsername. Outcome: CACHED, FOUND, UNKNOWN_USER.
+ */
+@Name("com.app.security.UserLookup")
+@Label("User Lookup")
+@Description("Carga de un usuario en UserDetailServiceimpl.loadUserByUsername")
+public class UserLookupEvent extends AuthEvent {
+}
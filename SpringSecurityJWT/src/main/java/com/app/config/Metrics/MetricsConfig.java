@@ -0,0 +1,127 @@
+package com.app.config.Metrics;
+
+import com.app.Service.LoginAttemptTracker;
+import com.app.Service.RefreshTokenService;
+import com.app.Service.UserDetailsCache;
+import com.app.config.Password.BoundedPasswordEncoder;
+import com.app.config.Throttle.LoginThrottle;
+import com.app.util.TokenDenylist;
+import com.app.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================================
+ * MetricsConfig
+ * ================================================================
+ *
+ * Publica como métricas los contadores que ya llevan las cachés y el pool de hashing.
+ * Los valores se leen al hacer scrape (FunctionCounter/Gauge), no en cada petición.
+ *
+ * Está separada de SecurityConfig porque necesita el PasswordEncoder que esa clase define.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder securityCacheMetrics(VerifiedTokenCache verifiedTokenCache, UserDetailsCache userDetailsCache) {
+        return registry -> {
+            FunctionCounter.builder("security.jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("security.jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::getMissCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("security.jwt.cache.evictions", verifiedTokenCache, VerifiedTokenCache::getEvictionCount)
+                    .register(registry);
+            Gauge.builder("security.jwt.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                    .register(registry);
+
+            FunctionCounter.builder("security.user.cache.requests", userDetailsCache, UserDetailsCache::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("security.user.cache.requests", userDetailsCache, UserDetailsCache::getMissCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("security.user.cache.evictions", userDetailsCache, UserDetailsCache::getEvictionCount)
+                    .register(registry);
+            FunctionCounter.builder("security.user.cache.invalidations", userDetailsCache, UserDetailsCache::getInvalidationCount)
+                    .register(registry);
+            Gauge.builder("security.user.cache.size", userDetailsCache, UserDetailsCache::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordEncoder passwordEncoder) {
+        return registry -> {
+            if (!(passwordEncoder instanceof BoundedPasswordEncoder pool)) {
+                return;
+            }
+            Gauge.builder("security.password.pool.queue", pool, BoundedPasswordEncoder::getQueueDepth)
+                    .description("Hashes esperando en la cola del pool").register(registry);
+            Gauge.builder("security.password.pool.active", pool, BoundedPasswordEncoder::getActiveCount)
+                    .description("Hashes calculándose ahora mismo").register(registry);
+            FunctionCounter.builder("security.password.pool.rejected", pool, BoundedPasswordEncoder::getRejectedCount)
+                    .description("Peticiones rechazadas con 503").register(registry);
+            FunctionCounter.builder("security.password.pool.executed", pool, BoundedPasswordEncoder::getExecutedCount)
+                    .register(registry);
+            FunctionCounter.builder("security.password.pool.wait", pool,
+                            p -> p.getTotalWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds").description("Tiempo total de espera en cola").register(registry);
+            Gauge.builder("security.password.pool.wait.max", pool,
+                            p -> p.getMaxWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds").description("Espera máxima en cola").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder loginThrottleMetrics(LoginThrottle loginThrottle) {
+        return registry -> {
+            FunctionCounter.builder("security.login.throttled", loginThrottle, LoginThrottle::getRejectedByIpCount)
+                    .tag("key", "ip").description("Logins rechazados con 429").register(registry);
+            FunctionCounter.builder("security.login.throttled", loginThrottle, LoginThrottle::getRejectedByUsernameCount)
+                    .tag("key", "username").description("Logins rechazados con 429").register(registry);
+            FunctionCounter.builder("security.login.throttle.evictions", loginThrottle, LoginThrottle::getEvictionCount)
+                    .register(registry);
+            Gauge.builder("security.login.throttle.size", loginThrottle, LoginThrottle::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder loginLockoutMetrics(LoginAttemptTracker loginAttemptTracker) {
+        return registry -> {
+            FunctionCounter.builder("security.login.failures", loginAttemptTracker, LoginAttemptTracker::getFailureCount)
+                    .description("Logins con contraseña incorrecta").register(registry);
+            FunctionCounter.builder("security.login.lockouts", loginAttemptTracker, LoginAttemptTracker::getLockoutCount)
+                    .description("Cuentas bloqueadas por fallos").register(registry);
+            FunctionCounter.builder("security.login.flushed", loginAttemptTracker, LoginAttemptTracker::getFlushedRowCount)
+                    .description("Filas de users escritas por el write-behind").register(registry);
+            Gauge.builder("security.login.pending", loginAttemptTracker, LoginAttemptTracker::getPendingCount)
+                    .description("Usuarios pendientes de escribir").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder refreshTokenMetrics(RefreshTokenService refreshTokenService) {
+        return registry -> FunctionCounter.builder("security.refresh.reuses", refreshTokenService, RefreshTokenService::getReuseCount)
+                .description("Refresh tokens reutilizados (familia revocada)").register(registry);
+    }
+
+    @Bean
+    public MeterBinder tokenDenylistMetrics(TokenDenylist tokenDenylist) {
+        return registry -> {
+            FunctionCounter.builder("security.jwt.revocations", tokenDenylist, TokenDenylist::getRevocationCount)
+                    .description("Access tokens revocados (logout)").register(registry);
+            FunctionCounter.builder("security.jwt.revocation.false-positives", tokenDenylist, TokenDenylist::getFalsePositiveCount)
+                    .description("Falsos positivos del filtro de Bloom").register(registry);
+            FunctionCounter.builder("security.jwt.revocation.purged", tokenDenylist, TokenDenylist::getPurgedCount)
+                    .description("Revocaciones borradas al caducar su token").register(registry);
+            Gauge.builder("security.jwt.revocation.size", tokenDenylist, TokenDenylist::size)
+                    .description("Revocaciones vigentes").register(registry);
+        };
+    }
+}
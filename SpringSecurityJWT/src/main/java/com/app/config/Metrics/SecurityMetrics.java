@@ -0,0 +1,134 @@
+package com.app.config.Metrics;
+
+import com.app.util.TokenValidationResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================================
+ * SecurityMetrics
+ * ================================================================
+ *
+ * Timers de cada etapa del camino de autenticación, etiquetados por resultado (tag "outcome"):
+ *
+ * - security.jwt.filter       → JwtTokenValidator completo (cached, valid, malformed, bad-signature, expired, invalid-claims)
+ * - security.jwt.verify       → JWTUtils.verify: firma + claims (valid, malformed, bad-signature, expired, invalid-claims)
+ * - security.user.lookup      → loadUserByUsername (cached, found, unknown-user)
+ * - security.password.matches → BCrypt en authenticate (valid, bad-credentials)
+ * - security.authenticate     → authenticate completo (success, bad-credentials, unknown-user)
+ *
+ * Coste en el filtro:
+ * Todos los Timer se crean al arrancar y se guardan en arrays indexados por resultado,
+ * así cada petición solo hace System.nanoTime() y un record(), sin buscar el meter
+ * por nombre y tags ni crear Timer.Sample.
+ *
+ * Se publican con histograma de percentiles (Prometheus: *_seconds_bucket).
+ */
+@Component
+public class SecurityMetrics {
+
+    private static final int OUTCOMES = TokenValidationResult.Outcome.values().length;
+
+    private final Timer[] filterTimers = new Timer[OUTCOMES];
+    private final Timer filterCached;
+    private final Timer[] verifyTimers = new Timer[OUTCOMES];
+
+    private final Timer lookupCached;
+    private final Timer lookupFound;
+    private final Timer lookupUnknownUser;
+
+    private final Timer passwordValid;
+    private final Timer passwordBadCredentials;
+
+    private final Timer authenticateSuccess;
+    private final Timer authenticateBadCredentials;
+    private final Timer authenticateUnknownUser;
+    private final Timer authenticateLocked;
+
+    public SecurityMetrics(MeterRegistry registry) {
+        for (TokenValidationResult.Outcome outcome : TokenValidationResult.Outcome.values()) {
+            filterTimers[outcome.ordinal()] = timer(registry, "security.jwt.filter", tag(outcome),
+                    "Validación del JWT en JwtTokenValidator");
+            verifyTimers[outcome.ordinal()] = timer(registry, "security.jwt.verify", tag(outcome),
+                    "Firma y claims del JWT (JWTUtils.verify)");
+        }
+        filterCached = timer(registry, "security.jwt.filter", "cached", "Validación del JWT en JwtTokenValidator");
+
+        lookupCached = timer(registry, "security.user.lookup", "cached", "Carga del usuario (loadUserByUsername)");
+        lookupFound = timer(registry, "security.user.lookup", "found", "Carga del usuario (loadUserByUsername)");
+        lookupUnknownUser = timer(registry, "security.user.lookup", "unknown-user", "Carga del usuario (loadUserByUsername)");
+
+        passwordValid = timer(registry, "security.password.matches", "valid", "Comprobación de la contraseña");
+        passwordBadCredentials = timer(registry, "security.password.matches", "bad-credentials", "Comprobación de la contraseña");
+
+        authenticateSuccess = timer(registry, "security.authenticate", "success", "Login completo");
+        authenticateBadCredentials = timer(registry, "security.authenticate", "bad-credentials", "Login completo");
+        authenticateUnknownUser = timer(registry, "security.authenticate", "unknown-user", "Login completo");
+        authenticateLocked = timer(registry, "security.authenticate", "locked", "Login completo");
+    }
+
+    /**
+     * Métricas que no se publican en ningún sitio (tests, benchmarks o el filtro creado a mano).
+     */
+    public static SecurityMetrics noop() {
+        return new SecurityMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordFilter(TokenValidationResult.Outcome outcome, long nanos) {
+        filterTimers[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFilterCached(long nanos) {
+        filterCached.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordVerify(TokenValidationResult.Outcome outcome, long nanos) {
+        verifyTimers[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLookup(boolean cached, boolean found, long nanos) {
+        Timer timer = cached ? lookupCached : found ? lookupFound : lookupUnknownUser;
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordMatches(boolean matches, long nanos) {
+        (matches ? passwordValid : passwordBadCredentials).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAuthenticate(AuthenticateOutcome outcome, long nanos) {
+        Timer timer = switch (outcome) {
+            case SUCCESS -> authenticateSuccess;
+            case BAD_CREDENTIALS -> authenticateBadCredentials;
+            case UNKNOWN_USER -> authenticateUnknownUser;
+            case LOCKED -> authenticateLocked;
+        };
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Resultado de UserDetailServiceimpl.authenticate.
+     */
+    public enum AuthenticateOutcome {
+        SUCCESS,
+        BAD_CREDENTIALS,
+        UNKNOWN_USER,
+        LOCKED
+    }
+
+    // "BAD_SIGNATURE" → "bad-signature"
+    private static String tag(TokenValidationResult.Outcome outcome) {
+        return outcome.name().toLowerCase().replace('_', '-');
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String outcome, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
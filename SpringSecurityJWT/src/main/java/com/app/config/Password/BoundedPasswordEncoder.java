@@ -0,0 +1,230 @@
+package com.app.config.Password;
+
+import com.app.config.Jfr.PasswordHashEvent;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ================================================================
+ * BoundedPasswordEncoder
+ * ================================================================
+ *
+ * PasswordEncoder que ejecuta encode/matches (BCrypt) en un pool propio,
+ * de tamaño fijo y con una cola acotada, en lugar de en los hilos de Tomcat.
+ *
+ * Así una avalancha de logins solo puede ocupar "threads" núcleos y el resto
+ * de endpoints (ej: /method/*, que solo validan el JWT) sigue respondiendo.
+ *
+ * Cuando la cola está llena, o la espera supera wait-timeout, se lanza
+ * PasswordHashingOverloadedException y el endpoint responde 503 con Retry-After.
+ *
+ * Métricas expuestas: profundidad de la cola, tareas activas, rechazos
+ * y tiempo de espera en cola (total y máximo).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @param delegate encoder real (ej: BCryptPasswordEncoder)
+     * @param threads hilos dedicados al hashing
+     * @param queueCapacity peticiones que pueden esperar en cola
+     * @param waitTimeoutMillis espera máxima de quien llama (cola + cálculo)
+     * @param retryAfterSeconds valor de Retry-After cuando se rechaza
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long waitTimeoutMillis, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent(); // JFR, deshabilitado por defecto
+        event.begin();
+        String outcome = "FAILED";
+        try {
+            String encoded = execute(() -> delegate.encode(rawPassword));
+            outcome = "ENCODED";
+            return encoded;
+        } catch (PasswordHashingOverloadedException e) {
+            outcome = "OVERLOADED";
+            throw e;
+        } finally {
+            event.finishOperation("ENCODE", outcome);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent(); // JFR, deshabilitado por defecto
+        event.begin();
+        String outcome = "FAILED";
+        try {
+            boolean matches = execute(() -> delegate.matches(rawPassword, encodedPassword));
+            outcome = matches ? "VALID" : "BAD_CREDENTIALS";
+            return matches;
+        } catch (PasswordHashingOverloadedException e) {
+            outcome = "OVERLOADED";
+            throw e;
+        } finally {
+            event.finishOperation("MATCHES", outcome);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // No calcula ningún hash: se resuelve en el hilo que llama
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Calcula el hash de varias contraseñas en paralelo, usando todos los hilos del pool.
+     *
+     * Se envían en tandas de tantas tareas como hilos tiene el pool, para que un alta masiva
+     * nunca llene la cola y deje sin hueco a los logins que llegan mientras tanto.
+     *
+     * @param rawPasswords contraseñas en claro
+     * @return los hashes, en el mismo orden
+     * @throws PasswordHashingOverloadedException si el pool rechaza una tanda o no termina a tiempo
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = Math.max(1, executor.getMaximumPoolSize());
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        List<Future<String>> inFlight = new ArrayList<>(window);
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            int to = Math.min(from + window, rawPasswords.size());
+            try {
+                for (CharSequence rawPassword : rawPasswords.subList(from, to)) {
+                    inFlight.add(submit(() -> delegate.encode(rawPassword)));
+                }
+                for (Future<String> future : inFlight) {
+                    encoded.add(await(future));
+                }
+            } finally {
+                // Si una tarea falla, las demás de la tanda no se esperan
+                inFlight.forEach(future -> future.cancel(true));
+                inFlight.clear();
+            }
+        }
+        return encoded;
+    }
+
+    private <T> T execute(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                totalWaitNanos.add(waited);
+                maxWaitNanos.accumulate(waited);
+                executed.increment();
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            // Cola llena: se rechaza al momento sin esperar
+            rejected.increment();
+            throw overloaded();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AuthenticationServiceException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    private PasswordHashingOverloadedException overloaded() {
+        return new PasswordHashingOverloadedException(
+                "Demasiadas peticiones de autenticación, inténtalo más tarde", retryAfterSeconds);
+    }
+
+    /**
+     * Detiene el pool. Spring lo llama al cerrar el contexto (método "shutdown" inferido).
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // --- Métricas ---
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    // Hilos daemon con nombre reconocible en los thread dumps
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.app.config.Password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCryptPasswordEncoder con el coste elegido por PasswordEncoderCalibrator (o fijado en la configuración).
+ *
+ * upgradeEncoding() solo pide re-hashear hashes con un coste MENOR que el actual.
+ * Nunca se baja el coste de un hash: la calibración se repite en cada arranque y puede dar
+ * 11 en un nodo y 12 en otro; si se re-hasheara en ambos sentidos, los mismos usuarios
+ * cambiarían de hash (y de fila en la DB) en cada login según el nodo que los atienda.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Formato: $2a$10$... → el coste son los dos dígitos tras el segundo '$'
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(3) != '$') {
+            return super.upgradeEncoding(encodedPassword);
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) < strength;
+        } catch (NumberFormatException e) {
+            return super.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.app.config.Password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * ================================================================
+ * PasswordEncoderCalibrator
+ * ================================================================
+ *
+ * Mide al arrancar cuánto tarda un hash en ESTE host y elige el coste
+ * que cumple el presupuesto de latencia configurado (ej: 50 ms).
+ *
+ * - BCrypt: cada punto de coste duplica el tiempo, así que se parte del
+ *   mínimo permitido y se sube mientras el tiempo estimado quepa en el presupuesto.
+ * - Argon2: con la memoria fija, el tiempo crece de forma lineal con las iteraciones.
+ *
+ * Nunca se baja del mínimo configurado aunque el host sea lento:
+ * el mínimo es un suelo de seguridad, no de rendimiento.
+ */
+public final class PasswordEncoderCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int MAX_BCRYPT_STRENGTH = 31;
+    private static final int MAX_ARGON2_ITERATIONS = 64;
+    private static final int SAMPLES = 3;
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    /**
+     * Coste BCrypt más alto cuyo hash tarda como mucho targetMillis.
+     *
+     * @param targetMillis presupuesto de latencia por hash
+     * @param minStrength coste mínimo permitido
+     */
+    public static int bcryptStrength(long targetMillis, int minStrength) {
+        int strength = minStrength;
+        double millis = measureMillis(new CalibratedBCryptPasswordEncoder(strength));
+        while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        log.info("BCrypt calibrado: coste {} (~{} ms por hash, presupuesto {} ms)", strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+
+    /**
+     * Iteraciones Argon2 más altas cuyo hash tarda como mucho targetMillis con la memoria indicada.
+     *
+     * @param targetMillis presupuesto de latencia por hash
+     * @param memoryKib memoria por hash en KiB
+     * @param parallelism hilos por hash
+     * @param minIterations iteraciones mínimas permitidas
+     */
+    public static int argon2Iterations(long targetMillis, int memoryKib, int parallelism, int minIterations) {
+        double millis = measureMillis(argon2(memoryKib, parallelism, minIterations));
+        int iterations = minIterations;
+        if (millis > 0) {
+            iterations = (int) Math.floor(minIterations * targetMillis / millis);
+        }
+        iterations = Math.max(minIterations, Math.min(MAX_ARGON2_ITERATIONS, iterations));
+        log.info("Argon2 calibrado: {} iteraciones con {} KiB (presupuesto {} ms)", iterations, memoryKib, targetMillis);
+        return iterations;
+    }
+
+    /**
+     * Argon2 con los parámetros recomendados por Spring (sal de 16 bytes, hash de 32 bytes).
+     */
+    public static Argon2PasswordEncoder argon2(int memoryKib, int parallelism, int iterations) {
+        return new Argon2PasswordEncoder(16, 32, parallelism, memoryKib, iterations);
+    }
+
+    // Mediana de varias mediciones tras un calentamiento
+    private static double measureMillis(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.config.Password;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Se lanza cuando el pool de hashing de contraseñas está saturado.
+ * Se responde 503 con la cabecera Retry-After: AuthExceptionHandler en los controladores
+ * y HashingOverloadAuthenticationEntryPoint en HTTP Basic (que si no respondería 401).
+ *
+ * No captura stack trace: en una avalancha de logins se lanza muchas veces
+ * y su origen siempre es el mismo (BoundedPasswordEncoder).
+ */
+public class PasswordHashingOverloadedException extends AuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,16 +1,28 @@
 package com.app.config;
 
 import com.app.Service.UserDetailServiceimpl;
+import com.app.config.Authorization.RouteAuthorizationTable;
+import com.app.config.Filter.HashingOverloadAuthenticationEntryPoint;
 import com.app.config.Filter.JwtTokenValidator;
+import com.app.config.Metrics.SecurityMetrics;
+import com.app.config.Password.BoundedPasswordEncoder;
+import com.app.config.Password.CalibratedBCryptPasswordEncoder;
+import com.app.config.Password.PasswordEncoderCalibrator;
+import com.app.persistence.Entity.PermissionEnum;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.util.AuthorityRegistry;
 import com.app.util.JWTUtils;
+import com.app.util.TokenDenylist;
+import com.app.util.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -20,6 +32,7 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
@@ -27,7 +40,9 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity // Permite usar anotaciones de seguridad como @PreAuthorize en controladores y servicios.
@@ -46,14 +61,68 @@ public class SecurityConfig {
     //Traemos el jwtUtils
     @Autowired
     private JWTUtils jwtUtils;
+
+    //Caché de tokens ya verificados que usa el filtro
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    //Registro de authorities compartidas
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    //Timers de validación del JWT
+    @Autowired
+    private SecurityMetrics securityMetrics;
+
+    //Tokens revocados por logout
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    //Pool dedicado al hashing de contraseñas (BCrypt)
+    @Value("${security.password.pool.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password.pool.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password.pool.wait-timeout-ms:5000}")
+    private long passwordHashingWaitTimeoutMillis;
+
+    @Value("${security.password.pool.retry-after-seconds:1}")
+    private long passwordHashingRetryAfterSeconds;
+
+    //Política de hashing: algoritmo para hashes nuevos y presupuesto de latencia por hash
+    @Value("${security.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${security.password.target-ms:50}")
+    private long passwordTargetMillis;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    // Coste fijo de BCrypt (0 = calibrar al arrancar); nunca por debajo de min-strength
+    @Value("${security.password.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${security.password.argon2.min-iterations:2}")
+    private int argon2MinIterations;
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity,
+                                                   RouteAuthorizationTable routeAuthorizationTable) throws Exception {
         return httpSecurity
                 // Deshabilita CSRF: útil solo cuando no se usan formularios web.
                 .csrf(csrf -> csrf.disable())
 
                 // Habilita autenticación básica HTTP (solo para pruebas, no para producción).
-                .httpBasic(Customizer.withDefaults())
+                // Con el pool de hashing saturado responde 503 + Retry-After en lugar de 401
+                .httpBasic(basic -> basic.authenticationEntryPoint(new HashingOverloadAuthenticationEntryPoint("Realm")))
 
                 // Configura la política de sesiones.
                 // Tipos posibles:
@@ -66,29 +135,46 @@ public class SecurityConfig {
                 )
 
                 // Configura los endpoints y sus permisos de acceso.
-                .authorizeHttpRequests(http -> {
-                    // --- Endpoints públicos ---
-                    // Por defecto ninguno, pero puedes permitir alguno si lo deseas.
-                    // http.requestMatchers(HttpMethod.GET, "/auth/public").permitAll();
-
-                    // --- Endpoints publicos ---
-                    http.requestMatchers(HttpMethod.POST, "/auth/**").permitAll();
-                    // --- Endpoints protegidos ---
-                   http.requestMatchers(HttpMethod.POST, "/method/post").hasAnyRole("ADMIN","DEVELOPER");
-                    http.requestMatchers(HttpMethod.PATCH, "/method/patch").hasAuthority("REFACTOR");
-
-
-                    // --- Endpoints no especificados ---
-                    // Cualquier otro endpoint queda denegado
-                    http.anyRequest().denyAll();
-                    // Alternativamente:
-                     //http.anyRequest().authenticated(); // Solo usuarios autenticados pueden acceder.
-                })
-                //Añadimos el filtro antes que el filtro de autotentifcacion
-                .addFilterBefore(new JwtTokenValidator(jwtUtils), BasicAuthenticationFilter.class) //Ponemos para que se ejecue antes del basic
+                // Las reglas están compiladas en RouteAuthorizationTable (ver routeAuthorizationTable()):
+                // una sola búsqueda por método y ruta en lugar de probar cada requestMatcher
+                .authorizeHttpRequests(http -> http.anyRequest().access(routeAuthorizationTable))
+                //Añadimos el filtro antes que el filtro de autotentifcacion; se salta las rutas permitAll
+                .addFilterBefore(new JwtTokenValidator(jwtUtils, verifiedTokenCache, authorityRegistry, securityMetrics,
+                        routeAuthorizationTable, tokenDenylist), BasicAuthenticationFilter.class) //Ponemos para que se ejecue antes del basic
                 .build();
     }
 
+    /*
+     * =============================================================
+     * TABLA DE AUTORIZACIÓN POR RUTA
+     * =============================================================
+     *
+     * Mismas reglas y mismo orden que tendrían los requestMatchers: gana la primera que coincide.
+     * RouteAuthorizationTableTests comprueba que decide igual que la cadena de requestMatchers.
+     */
+    @Bean
+    public RouteAuthorizationTable routeAuthorizationTable() {
+        return RouteAuthorizationTable.builder()
+                // --- Alta masiva de usuarios: solo administradores ---
+                // Debe ir antes de "/auth/**" porque gana la primera regla que coincide
+                .access(HttpMethod.POST, "/auth/sing-up/batch", BitmaskAuthorizationManager.hasRole(RoleEnum.ADMIN))
+                // Logout: revoca el token con el que se llama, así que necesita uno válido
+                .access(HttpMethod.POST, "/auth/logout", AuthenticatedAuthorizationManager.authenticated())
+                // --- Endpoints publicos ---
+                .permitAll(HttpMethod.POST, "/auth/**")
+                // Health check (solo lectura, sin datos de usuarios)
+                .permitAll(HttpMethod.GET, "/actuator/health")
+                // --- Endpoints protegidos ---
+                // Métricas de Prometheus: solo administradores (desvelan intentos de login, bloqueos y limitaciones)
+                .access(HttpMethod.GET, "/actuator/prometheus", BitmaskAuthorizationManager.hasRole(RoleEnum.ADMIN))
+                // Se resuelven con una sola operación sobre la máscara de roles/permisos
+                .access(HttpMethod.POST, "/method/post", BitmaskAuthorizationManager.hasAnyRole(RoleEnum.ADMIN, RoleEnum.DEVELOPER))
+                .access(HttpMethod.PATCH, "/method/patch", BitmaskAuthorizationManager.hasAuthority(PermissionEnum.REFACTOR))
+                // --- Endpoints no especificados ---
+                // Cualquier otro endpoint queda denegado
+                .anyRequestDenyAll()
+                .build();
+    }
 
     /*
      * =============================================================
@@ -133,6 +219,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setPasswordEncoder(passwordEncoder()); // Codificador de contraseñas obligatorio.
         provider.setUserDetailsService(userDetailServiceimpl); // Servicio personalizado de usuarios.
+        provider.setUserDetailsPasswordService(userDetailServiceimpl); // Re-hashea contraseñas con la política actual.
         return provider;
     }
 
@@ -143,14 +230,45 @@ public class SecurityConfig {
      *
      * Define el algoritmo para codificar contraseñas.
      * BCrypt es el recomendado por Spring Security.
+     *
+     * BCrypt se ejecuta en un pool propio con cola acotada (BoundedPasswordEncoder),
+     * así un pico de logins no bloquea los hilos de Tomcat del resto de endpoints.
+     * threads = 0 → un hilo por núcleo.
+     *
+     * El coste no está fijo: al arrancar se mide el hash en este host y se elige el
+     * que cumple security.password.target-ms (PasswordEncoderCalibrator), salvo que se fije
+     * con security.password.bcrypt.strength para que todos los nodos usen el mismo.
+     * Solo se re-hashean hashes con coste menor: nunca se baja el coste de un hash.
+     * Los hashes nuevos llevan prefijo ({bcrypt} o {argon2}); los antiguos sin prefijo
+     * ($2a$10$...) se siguen validando con BCrypt y se re-hashean tras el siguiente login.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
         // ⚠️ Solo para pruebas:
         // return NoOpPasswordEncoder.getInstance();
 
-        // ✅ Uso recomendado: BCrypt.
-        return new BCryptPasswordEncoder();
+        // ✅ Uso recomendado: BCrypt (o Argon2 con security.password.algorithm=argon2).
+        boolean argon2 = "argon2".equalsIgnoreCase(passwordAlgorithm);
+
+        // Solo se calibra el algoritmo con el que se generan hashes nuevos
+        int strength = bcryptStrength > 0
+                ? Math.max(bcryptStrength, bcryptMinStrength)
+                : argon2 ? bcryptMinStrength : PasswordEncoderCalibrator.bcryptStrength(passwordTargetMillis, bcryptMinStrength);
+        CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(strength);
+        int argon2Iterations = argon2
+                ? PasswordEncoderCalibrator.argon2Iterations(passwordTargetMillis, argon2MemoryKib, argon2Parallelism, argon2MinIterations)
+                : argon2MinIterations;
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", PasswordEncoderCalibrator.argon2(argon2MemoryKib, argon2Parallelism, argon2Iterations));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(argon2 ? "argon2" : "bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt); // hashes antiguos sin prefijo
+
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, passwordHashingQueueCapacity,
+                passwordHashingWaitTimeoutMillis, passwordHashingRetryAfterSeconds);
     }
 
     /*
@@ -0,0 +1,94 @@
+package com.app.config.Throttle;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================================
+ * LoginThrottle
+ * ================================================================
+ *
+ * Limita los intentos de /auth/log-in por IP y por username antes de llegar a
+ * UserDetailServiceimpl.loginUser, es decir, antes de la consulta a la DB y de BCrypt.
+ *
+ * - Por IP: frena a un cliente que prueba muchos usuarios.
+ * - Por username: frena a muchos clientes atacando la misma cuenta.
+ * Se comprueba primero la IP; si la IP ya está agotada no se toca el bucket del usuario.
+ *
+ * El rechazo es barato (un get del mapa y una resta) y no depende de si el usuario existe.
+ *
+ * Propiedades (security.login-throttle.*):
+ * - enabled                     → false lo desactiva (ej: pruebas de carga)
+ * - ip.capacity / ip.refill-ms  → ráfaga por IP y ms en recuperar un intento
+ * - user.capacity / user.refill-ms → ídem por username
+ * - max-entries                 → claves en memoria por cada mapa
+ * - sweep-interval-ms           → cada cuánto se borran los buckets inactivos
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final TokenBuckets byIp;
+    private final TokenBuckets byUsername;
+
+    public LoginThrottle(@Value("${security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${security.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${security.login-throttle.ip.refill-ms:1000}") long ipRefillMillis,
+                         @Value("${security.login-throttle.user.capacity:5}") int userCapacity,
+                         @Value("${security.login-throttle.user.refill-ms:12000}") long userRefillMillis,
+                         @Value("${security.login-throttle.max-entries:100000}") int maxEntries) {
+        this.enabled = enabled;
+        this.byIp = new TokenBuckets(ipCapacity, TimeUnit.MILLISECONDS.toNanos(ipRefillMillis), maxEntries, System::nanoTime);
+        this.byUsername = new TokenBuckets(userCapacity, TimeUnit.MILLISECONDS.toNanos(userRefillMillis), maxEntries, System::nanoTime);
+    }
+
+    /**
+     * Consume un intento de login de la IP y del username.
+     *
+     * @param username username enviado (se normaliza a minúsculas: MySQL lo compara sin mayúsculas)
+     * @param clientIp IP del cliente (request.getRemoteAddr())
+     * @throws LoginThrottledException si alguno de los dos no tiene intentos disponibles
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = byIp.tryAcquire(clientIp);
+        if (waitNanos == 0L) {
+            waitNanos = byUsername.tryAcquire(username.toLowerCase(Locale.ROOT));
+        }
+        if (waitNanos > 0L) {
+            throw new LoginThrottledException("Demasiados intentos de login, inténtalo más tarde",
+                    Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    // Los buckets que ya se recargaron por completo no aportan nada: se liberan
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        byIp.evictIdle();
+        byUsername.evictIdle();
+    }
+
+    // --- Métricas ---
+
+    public long getRejectedByIpCount() {
+        return byIp.getRejectedCount();
+    }
+
+    public long getRejectedByUsernameCount() {
+        return byUsername.getRejectedCount();
+    }
+
+    public long getEvictionCount() {
+        return byIp.getEvictionCount() + byUsername.getEvictionCount();
+    }
+
+    public int size() {
+        return byIp.size() + byUsername.size();
+    }
+}
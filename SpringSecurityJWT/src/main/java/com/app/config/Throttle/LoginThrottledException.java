@@ -0,0 +1,29 @@
+package com.app.config.Throttle;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Se lanza cuando un username o una IP agotan sus intentos de login.
+ * El controlador responde 429 con la cabecera Retry-After.
+ *
+ * No captura stack trace: es justo lo que recibe un atacante en bucle
+ * y su origen siempre es el mismo (LoginThrottle).
+ */
+public class LoginThrottledException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,140 @@
+package com.app.config.Throttle;
+
+import com.app.util.BoundedEviction;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * ================================================================
+ * TokenBuckets
+ * ================================================================
+ *
+ * Un token bucket por clave (username o IP), sin locks y con memoria acotada.
+ *
+ * Cada bucket es un único AtomicLong con el instante (nanos) en que volvería a estar lleno
+ * ("theoretical arrival time", algoritmo GCRA, equivalente a un token bucket):
+ * - Consumir un token = adelantar ese instante un intervalo de recarga, con compareAndSet.
+ * - Si adelantarlo lo dejaría a más de "capacity" intervalos del ahora, no quedan tokens:
+ *   se rechaza sin escribir nada y se devuelve cuánto falta para el siguiente token.
+ * - Un bucket cuyo instante ya pasó está lleno: es indistinguible de uno nuevo y se puede borrar.
+ *
+ * Memoria:
+ * - Como mucho maxEntries claves. Al llenarse se eliminan primero los buckets llenos (inactivos).
+ * - Si no basta, se libera una décima parte del máximo eligiendo los buckets que antes se
+ *   recargan, es decir, los menos limitados. Así siempre entran claves nuevas (un atacante que
+ *   mantiene el mapa lleno con claves inventadas no deja fuera a los usuarios legítimos) y los
+ *   buckets agotados son los últimos en salir: generar claves nuevas no le devuelve los tokens
+ *   a quien está limitado, salvo que casi todo el mapa esté aún más limitado que él.
+ * - Para no recorrer el mapa en cada petición, con el mapa lleno se barre como mucho una vez
+ *   por intervalo de recarga; entre barridos, una clave nueva sin sitio se rechaza como limitada.
+ * - evictIdle() borra los inactivos; LoginThrottle lo llama periódicamente.
+ */
+public class TokenBuckets {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    // Último barrido hecho con el mapa lleno (nanos)
+    private volatile long lastSweepNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity tokens de un bucket lleno (ráfaga permitida)
+     * @param refillPeriodNanos tiempo en recuperar un token
+     * @param maxEntries claves como máximo en memoria
+     * @param clock reloj en nanos (System::nanoTime; otro en tests)
+     */
+    public TokenBuckets(int capacity, long refillPeriodNanos, int maxEntries, LongSupplier clock) {
+        this.intervalNanos = refillPeriodNanos;
+        this.burstNanos = capacity * refillPeriodNanos;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.lastSweepNanos = clock.getAsLong() - refillPeriodNanos;
+    }
+
+    /**
+     * Intenta consumir un token del bucket de la clave.
+     *
+     * @return 0 si se consumió; si no, nanos hasta que haya un token disponible
+     *         (o, con el mapa lleno entre dos barridos, hasta el siguiente)
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries && !makeRoom(now)) {
+                rejected.increment();
+                return intervalNanos;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Elimina los buckets que ya se recargaron por completo.
+     */
+    public void evictIdle() {
+        evictIdle(clock.getAsLong());
+    }
+
+    private void evictIdle(long now) {
+        evictions.add(BoundedEviction.removeIf(buckets, bucket -> bucket.get() - now <= 0));
+    }
+
+    // Con el mapa lleno: primero los buckets llenos y, si no basta, los que antes se recargan; indica si quedó sitio
+    private boolean makeRoom(long now) {
+        if (now - lastSweepNanos >= intervalNanos) {
+            lastSweepNanos = now;
+            evictIdle(now);
+            if (buckets.size() >= maxEntries) {
+                evictLeastThrottled(now);
+            }
+        }
+        return buckets.size() < maxEntries;
+    }
+
+    // Borra los buckets con menos deuda (el instante de recarga más cercano); los agotados se quedan
+    private void evictLeastThrottled(long now) {
+        long[] debts = buckets.values().stream().mapToLong(bucket -> bucket.get() - now).toArray();
+        if (debts.length == 0) {
+            return;
+        }
+        Arrays.sort(debts);
+        long threshold = debts[Math.min(BoundedEviction.batchSize(maxEntries), debts.length) - 1];
+        evictions.add(BoundedEviction.removeIf(buckets, bucket -> bucket.get() - now <= threshold));
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.controller.Advice;
+
+import com.app.Service.InvalidRefreshTokenException;
+import com.app.config.Password.PasswordHashingOverloadedException;
+import com.app.config.Throttle.LoginThrottledException;
+import com.app.controller.DTO.AuthResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traduce a respuestas HTTP las excepciones de autenticación que salen de los controladores.
+ */
+@RestControllerAdvice
+public class AuthExceptionHandler {
+
+    // Pool de hashing saturado → 503 con Retry-After para que el cliente espere antes de reintentar
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<AuthResponse> handleOverloaded(PasswordHashingOverloadedException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(new AuthResponse(null, exception.getMessage(), null, false));
+    }
+
+    // Demasiados intentos de login de la misma IP o para el mismo usuario → 429 con Retry-After
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<AuthResponse> handleThrottled(LoginThrottledException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(new AuthResponse(null, exception.getMessage(), null, false));
+    }
+
+    // Refresh token desconocido, caducado o reutilizado → 401: el cliente vuelve a hacer login
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<AuthResponse> handleInvalidRefreshToken(InvalidRefreshTokenException exception) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new AuthResponse(null, exception.getMessage(), null, false));
+    }
+}
@@ -1,18 +1,25 @@
 package com.app.controller;
 
 import com.app.Service.UserDetailServiceimpl;
+import com.app.config.Throttle.LoginThrottle;
+import com.app.controller.DTO.AuthBatchResponse;
 import com.app.controller.DTO.AuthCreateUserRequest;
 import com.app.controller.DTO.AuthLoginRequest;
+import com.app.controller.DTO.AuthRefreshRequest;
 import com.app.controller.DTO.AuthResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthentificationController {
@@ -20,13 +27,39 @@ public class AuthentificationController {
     @Autowired
     private UserDetailServiceimpl userDetailServiceimpl;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
     @PostMapping("/sing-up")
     public ResponseEntity<AuthResponse> register(@RequestBody @Valid AuthCreateUserRequest authCreateUser){
         return new ResponseEntity<>(this.userDetailServiceimpl.createUser(authCreateUser),HttpStatus.CREATED);
     }
 
+    //Alta masiva: un resultado por usuario en la respuesta (solo ADMIN, ver SecurityConfig)
+    @PostMapping("/sing-up/batch")
+    public ResponseEntity<AuthBatchResponse> registerBatch(@RequestBody List<AuthCreateUserRequest> authCreateUsers){
+        return new ResponseEntity<>(this.userDetailServiceimpl.createUsers(authCreateUsers),HttpStatus.OK);
+    }
+
+    //Antes de consultar la DB y calcular BCrypt se consume un intento de la IP y del username (429 si no quedan)
     @PostMapping("/log-in")
-    public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthLoginRequest userRequest){
+    public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthLoginRequest userRequest, HttpServletRequest request){
+        this.loginThrottle.acquire(userRequest.username(), request.getRemoteAddr());
         return new ResponseEntity<>(this.userDetailServiceimpl.loginUser(userRequest), HttpStatus.OK);
     }
+
+    //Renueva el access token con un refresh token de un solo uso: sin BCrypt ni contraseña
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody @Valid AuthRefreshRequest refreshRequest){
+        return new ResponseEntity<>(this.userDetailServiceimpl.refresh(refreshRequest), HttpStatus.OK);
+    }
+
+    //Revoca el access token con el que se llama (y la familia del refresh token si se envía en el cuerpo)
+    //400 si no había nada que revocar
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@RequestBody(required = false) @Valid AuthRefreshRequest refreshRequest,
+                                               Authentication authentication){
+        AuthResponse response = this.userDetailServiceimpl.logout(authentication, refreshRequest);
+        return new ResponseEntity<>(response, response.status() ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    }
 }
@@ -0,0 +1,11 @@
+package com.app.controller.DTO;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+//Respuesta del alta masiva: totales y un resultado por usuario, en el mismo orden que la petición
+@JsonPropertyOrder({"requested","created","rejected","results"})
+public record AuthBatchResponse(int requested, int created, int rejected, List<AuthCreateUserResult> results) {
+
+}
@@ -0,0 +1,9 @@
+package com.app.controller.DTO;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+//Resultado de un usuario dentro de un alta masiva
+@JsonPropertyOrder({"username","message","status"})
+public record AuthCreateUserResult(String username, String message, boolean status) {
+
+}
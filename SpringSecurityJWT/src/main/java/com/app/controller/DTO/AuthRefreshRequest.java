@@ -0,0 +1,7 @@
+package com.app.controller.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record AuthRefreshRequest(@NotBlank @Size(max = 128) String refreshToken) {
+}
@@ -1,10 +1,15 @@
 package com.app.controller.DTO;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 //Estos es para solo darle el orden del json
-@JsonPropertyOrder({"username","message","jwt","status"})
-public record AuthResponse(String username, String message, String jwt, boolean status){
-
+//refreshToken solo aparece en log-in, sing-up y refresh
+@JsonPropertyOrder({"username","message","jwt","refreshToken","status"})
+public record AuthResponse(String username, String message, String jwt,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) String refreshToken, boolean status){
+
+    public AuthResponse(String username, String message, String jwt, boolean status) {
+        this(username, message, jwt, null, status);
+    }
 }
-
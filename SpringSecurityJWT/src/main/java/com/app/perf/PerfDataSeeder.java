@@ -0,0 +1,116 @@
+package com.app.perf;
+
+import com.app.persistence.Entity.RoleEntity;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.persistence.Entity.UserEntity;
+import com.app.persistence.Repository.RoleRespository;
+import com.app.persistence.Repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ================================================
+ * PerfDataSeeder
+ * ================================================
+ *
+ * Solo con el perfil "perf": carga usuarios de prueba para las pruebas de carga.
+ *
+ * - Se ejecuta después del CommandLineRunner de SpringSecurityJwtApplication,
+ *   que ya creó los roles y permisos.
+ * - Usuarios "perf-user-0".."perf-user-N", roles asignados por turnos (perf.seed.roles).
+ * - La contraseña se codifica UNA vez y se reutiliza: con BCrypt calibrado,
+ *   codificarla por usuario alargaría el arranque varios minutos.
+ * - Se guarda por tandas con el camino de escritura de altas (insertNewUser).
+ */
+@Component
+@Profile("perf")
+@Order(1)
+public class PerfDataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+
+    public static final String USERNAME_PREFIX = "perf-user-";
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final RoleRespository roleRespository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int users;
+    private final String password;
+    private final List<RoleEnum> roles;
+
+    public PerfDataSeeder(UserRepository userRepository,
+                          RoleRespository roleRespository,
+                          PasswordEncoder passwordEncoder,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${perf.seed.users:10000}") int users,
+                          @Value("${perf.seed.password:perf-password}") String password,
+                          @Value("${perf.seed.roles:DEVELOPER,ADMIN,USER,INVITED}") String roles) {
+        this.userRepository = userRepository;
+        this.roleRespository = roleRespository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.users = users;
+        this.password = password;
+        this.roles = new ArrayList<>();
+        for (String role : roles.split(",")) {
+            if (!role.isBlank()) {
+                this.roles.add(RoleEnum.valueOf(role.trim()));
+            }
+        }
+    }
+
+    @Override
+    public void run(String... args) {
+        long start = System.nanoTime();
+
+        Map<RoleEnum, Long> roleIds = new EnumMap<>(RoleEnum.class);
+        for (RoleEntity role : roleRespository.findAll()) {
+            roleIds.put(role.getRoleEnum(), role.getId());
+        }
+        String encodedPassword = passwordEncoder.encode(password);
+
+        for (int from = 0; from < users; from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, users);
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < to; i++) {
+                    RoleEnum role = roles.get(i % roles.size());
+                    userRepository.insertNewUser(UserEntity.builder()
+                            .username(USERNAME_PREFIX + i)
+                            .password(encodedPassword)
+                            .isEnabled(true)
+                            .accountNoLocked(true)
+                            .accountNoExpired(true)
+                            .credentialNoExpired(true)
+                            .build(), List.of(roleIds.get(role)));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        log.info("Perfil perf: {} usuarios cargados en {} ms (roles {})",
+                users, (System.nanoTime() - start) / 1_000_000, roles);
+    }
+}
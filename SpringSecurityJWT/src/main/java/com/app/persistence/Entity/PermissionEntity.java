@@ -1,5 +1,6 @@
 package com.app.persistence.Entity;
 
+import com.app.Service.RoleCatalogListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +10,7 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(RoleCatalogListener.class) // Recarga RoleCatalog al editar roles/permisos
 @Table(name = "permissions")
 public class PermissionEntity {
     @Id
@@ -0,0 +1,10 @@
+package com.app.persistence.Entity;
+
+// Vocabulario fijo de permisos (coincide con PermissionEntity.name)
+public enum PermissionEnum {
+    CREATE,
+    READ,
+    UPDATE,
+    DELETE,
+    REFACTOR
+}
@@ -0,0 +1,34 @@
+package com.app.persistence.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//Refresh tokens (JpaRefreshTokenStore). Solo se guarda el SHA-256 del token
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at"),
+        @Index(name = "idx_refresh_tokens_used_at", columnList = "used_at")
+})
+public class RefreshTokenEntity {
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+    @Column(nullable = false)
+    private String username;
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    private boolean used;
+    @Column(name = "used_at")
+    private Instant usedAt;
+    private boolean revoked;
+}
@@ -1,5 +1,6 @@
 package com.app.persistence.Entity;
 
+import com.app.Service.RoleCatalogListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,6 +13,7 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(RoleCatalogListener.class) // Recarga RoleCatalog al editar roles/permisos
 @Table(name = "roles")
 public class RoleEntity {
      @Id
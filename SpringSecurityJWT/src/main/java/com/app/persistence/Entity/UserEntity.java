@@ -3,6 +3,7 @@ package com.app.persistence.Entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -14,8 +15,11 @@ import java.util.Set;
 @Entity
 @Table(name = "users")
 public class UserEntity {
+    //Secuencia con bloques de 50 ids: IDENTITY obliga a un INSERT inmediato por fila
+    //y desactiva el batching JDBC de Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private long id;
     @Column(unique = true)
     private String username;
@@ -29,8 +33,15 @@ public class UserEntity {
     private boolean accountNoLocked;
     @Column(name = "credential_No_Expired")
     private boolean credentialNoExpired;
+    //Las escribe LoginAttemptTracker en lotes (write-behind), nunca en cada login
+    @Column(name = "failed_attempts")
+    private int failedAttempts;
+    @Column(name = "last_login_at")
+    private Instant lastLoginAt;
 
-    @ManyToMany(fetch = FetchType.EAGER,cascade = CascadeType.ALL)
+    //Sin cascada: los roles ya existen y crear un usuario nunca debe escribir (ni bloquear)
+    //las filas de roles y permisos. Solo se inserta la fila de user_roles
+    @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles",joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<RoleEntity>  roles= new HashSet<>();
 }
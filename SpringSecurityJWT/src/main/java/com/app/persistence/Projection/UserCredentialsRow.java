@@ -0,0 +1,22 @@
+package com.app.persistence.Projection;
+
+import com.app.persistence.Entity.RoleEnum;
+
+/**
+ * Fila de la consulta de login (UserRepository.findCredentialsByUsername).
+ *
+ * Una fila por cada combinación rol-permiso del usuario: los datos de la cuenta
+ * se repiten y role/permission pueden ser null si el usuario no tiene roles
+ * o el rol no tiene permisos.
+ */
+public record UserCredentialsRow(
+        String username,
+        String password,
+        boolean enabled,
+        boolean accountNoExpired,
+        boolean accountNoLocked,
+        boolean credentialNoExpired,
+        RoleEnum role,
+        String permission
+) {
+}
@@ -0,0 +1,45 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.Entity.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repositorio de RefreshTokenEntity (JpaRefreshTokenStore).
+ */
+@Repository
+public interface RefreshTokenRepository extends CrudRepository<RefreshTokenEntity, String> {
+
+    /**
+     * Marca el token como usado solo si aún no lo estaba.
+     * Es un único UPDATE condicional: con dos peticiones a la vez (o dos instancias)
+     * solo una obtiene 1.
+     *
+     * @return 1 si este llamador lo ha consumido, 0 si ya estaba usado o no existe
+     */
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity t SET t.used = true, t.usedAt = :now WHERE t.tokenHash = :tokenHash AND t.used = false")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /**
+     * true si algún token de la familia está revocado (la familia entera queda invalidada).
+     */
+    boolean existsByFamilyIdAndRevokedTrue(String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Borra los tokens caducados y los usados antes de usedBefore (ya no hace falta
+     * recordarlos para detectar su reutilización).
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.expiresAt <= :now OR t.usedAt <= :usedBefore")
+    int deleteExpired(@Param("now") Instant now, @Param("usedBefore") Instant usedBefore);
+}
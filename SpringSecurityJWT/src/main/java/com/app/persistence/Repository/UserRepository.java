@@ -1,10 +1,16 @@
 package com.app.persistence.Repository;
 
 import com.app.persistence.Entity.UserEntity;
+import com.app.persistence.Projection.UserCredentialsRow;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 /**
  * Repositorio para la entidad UserEntity.
@@ -16,7 +22,7 @@ import java.util.Optional;
  * basándose en su nombre, sin necesidad de escribir consultas manuales.
  */
 @Repository
-public interface UserRepository extends CrudRepository<UserEntity,Long> {
+public interface UserRepository extends CrudRepository<UserEntity,Long>, UserRepositoryCustom {
 
     /**
      * Busca un usuario por su nombre de usuario.
@@ -32,6 +38,48 @@ public interface UserRepository extends CrudRepository<UserEntity,Long> {
      */
     Optional<UserEntity> findUserEntityByUsername(String username);
 
+    /**
+     * Lectura específica para el login: datos de la cuenta, hash de la contraseña
+     * y nombres de roles y permisos en UNA sola consulta.
+     *
+     * No carga entidades, así que no depende de la carga EAGER de UserEntity.roles
+     * ni de RoleEntity.permisos (que lanzaría una consulta más por cada colección).
+     *
+     * @param username nombre de usuario a buscar.
+     * @return una fila por cada combinación rol-permiso; lista vacía si el usuario no existe.
+     */
+    @Query("SELECT new com.app.persistence.Projection.UserCredentialsRow(" +
+            "u.username, u.password, u.isEnabled, u.accountNoExpired, u.accountNoLocked, u.credentialNoExpired, " +
+            "r.roleEnum, p.name) " +
+            "FROM UserEntity u LEFT JOIN u.roles r LEFT JOIN r.permisos p " +
+            "WHERE u.username = :username")
+    List<UserCredentialsRow> findCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * Reemplaza el hash de la contraseña de un usuario.
+     *
+     * Se usa para re-hashear contraseñas tras un login correcto cuando
+     * la política de hashing (algoritmo o coste) ha cambiado.
+     *
+     * @param username nombre de usuario.
+     * @param password hash nuevo, ya codificado.
+     * @return número de filas actualizadas.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Devuelve cuáles de los usernames indicados ya existen.
+     * Lo usa el alta masiva para descartar duplicados con una consulta por tanda.
+     *
+     * @param usernames nombres de usuario a comprobar
+     * @return los que ya están registrados
+     */
+    @Query("SELECT u.username FROM UserEntity u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
     // Ejemplo alternativo con consulta personalizada (comentado):
     // Permite definir manualmente la consulta JPQL.
     // @Query("SELECT u FROM UserEntity u WHERE u.username = ?1")
@@ -0,0 +1,24 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.Entity.UserEntity;
+
+import java.util.Collection;
+
+/**
+ * Operaciones de UserRepository escritas a mano (implementadas en UserRepositoryCustomImpl).
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserta un usuario nuevo enlazado a roles que ya existen.
+     *
+     * Los roles se referencian solo por id (EntityManager.getReference), sin cargarlos
+     * ni pasar por cascadas: se ejecuta un INSERT en "users" y uno en "user_roles" por rol,
+     * y nunca se tocan (ni se bloquean) las filas de "roles" y "permissions".
+     *
+     * @param user usuario nuevo, sin id y con la contraseña ya codificada
+     * @param roleIds ids de los roles del usuario
+     * @return el mismo usuario, ya gestionado y con id
+     */
+    UserEntity insertNewUser(UserEntity user, Collection<Long> roleIds);
+}
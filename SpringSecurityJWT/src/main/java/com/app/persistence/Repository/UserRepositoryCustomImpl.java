@@ -0,0 +1,34 @@
+package com.app.persistence.Repository;
+
+import com.app.persistence.Entity.RoleEntity;
+import com.app.persistence.Entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Implementación de UserRepositoryCustom.
+ * Spring Data la detecta por el sufijo "Impl" y la combina con UserRepository.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public UserEntity insertNewUser(UserEntity user, Collection<Long> roleIds) {
+        // Proxies sin SELECT: para escribir user_roles solo hace falta el id
+        Set<RoleEntity> roles = new HashSet<>();
+        roleIds.forEach(id -> roles.add(entityManager.getReference(RoleEntity.class, id)));
+        user.setRoles(roles);
+
+        // persist (no merge): el usuario es nuevo y UserEntity.roles no tiene cascada
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,236 @@
+package com.app.util;
+
+import com.app.persistence.Entity.PermissionEnum;
+import com.app.persistence.Entity.RoleEnum;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ================================================================
+ * AuthorityRegistry
+ * ================================================================
+ *
+ * Registro canónico e inmutable de las authorities de la aplicación.
+ *
+ * El vocabulario es pequeño y fijo:
+ * - Roles: "ROLE_" + cada valor de RoleEnum.
+ * - Permisos: cada valor de PermissionEnum (CREATE, READ, UPDATE, DELETE, REFACTOR).
+ *
+ * Cada authority se crea una única vez al arrancar y se comparte.
+ * Además, cada claim "authorities" (ej: "ROLE_ADMIN,READ") se traduce una sola vez
+ * a una lista inmutable que se reutiliza en las siguientes peticiones,
+ * así el filtro no crea listas ni SimpleGrantedAuthority en cada petición.
+ *
+ * Máscara de bits:
+ * Cada rol y cada permiso tiene una posición de bit fija (roles 0-15, permisos 16-47).
+ * Las posiciones NUNCA deben cambiar, porque los tokens emitidos las llevan codificadas.
+ * Un valor nuevo del enum debe recibir una posición libre en ROLE_BITS o PERMISSION_BITS.
+ */
+@Component
+public class AuthorityRegistry {
+
+    // Límite de combinaciones distintas de claims que se guardan
+    private static final int MAX_CLAIM_COMBINATIONS = 1024;
+
+    // Posiciones de bit estables de cada rol y permiso
+    private static final Map<RoleEnum, Integer> ROLE_BITS = Map.of(
+            RoleEnum.ADMIN, 0,
+            RoleEnum.USER, 1,
+            RoleEnum.INVITED, 2,
+            RoleEnum.DEVELOPER, 3);
+
+    private static final Map<PermissionEnum, Integer> PERMISSION_BITS = Map.of(
+            PermissionEnum.CREATE, 16,
+            PermissionEnum.READ, 17,
+            PermissionEnum.UPDATE, 18,
+            PermissionEnum.DELETE, 19,
+            PermissionEnum.REFACTOR, 20);
+
+    // Nombre de authority → bit, construido a partir de las posiciones anteriores
+    private static final Map<String, Long> AUTHORITY_BITS = buildAuthorityBits();
+
+    private final Map<String, GrantedAuthority> canonical;
+    private final Map<String, List<GrantedAuthority>> claims = new ConcurrentHashMap<>();
+    private final Map<Long, List<GrantedAuthority>> masks = new ConcurrentHashMap<>();
+
+    public AuthorityRegistry() {
+        Map<String, GrantedAuthority> authorities = new HashMap<>();
+        for (RoleEnum role : RoleEnum.values()) {
+            String name = roleAuthority(role);
+            authorities.put(name, new SimpleGrantedAuthority(name));
+        }
+        for (PermissionEnum permission : PermissionEnum.values()) {
+            authorities.put(permission.name(), new SimpleGrantedAuthority(permission.name()));
+        }
+        this.canonical = Map.copyOf(authorities);
+    }
+
+    private static Map<String, Long> buildAuthorityBits() {
+        Map<String, Long> authorityBits = new HashMap<>();
+        for (RoleEnum role : RoleEnum.values()) {
+            authorityBits.put(roleAuthority(role), bit(role));
+        }
+        for (PermissionEnum permission : PermissionEnum.values()) {
+            authorityBits.put(permission.name(), bit(permission));
+        }
+        return Map.copyOf(authorityBits);
+    }
+
+    /**
+     * Bit asignado a un rol.
+     */
+    public static long bit(RoleEnum role) {
+        Integer position = ROLE_BITS.get(role);
+        if (position == null) {
+            throw new IllegalStateException("El rol " + role + " no tiene posición de bit asignada");
+        }
+        return 1L << position;
+    }
+
+    /**
+     * Bit asignado a un permiso.
+     */
+    public static long bit(PermissionEnum permission) {
+        Integer position = PERMISSION_BITS.get(permission);
+        if (position == null) {
+            throw new IllegalStateException("El permiso " + permission + " no tiene posición de bit asignada");
+        }
+        return 1L << position;
+    }
+
+    /**
+     * Nombre de authority de un rol según la convención de Spring Security ("ROLE_X").
+     */
+    public static String roleAuthority(RoleEnum role) {
+        return "ROLE_" + role.name();
+    }
+
+    /**
+     * Devuelve la instancia compartida de una authority.
+     * Los nombres fuera del vocabulario conocido se crean al vuelo.
+     *
+     * @param name nombre de la authority (ej: "READ" o "ROLE_ADMIN")
+     */
+    public GrantedAuthority authority(String name) {
+        GrantedAuthority authority = canonical.get(name);
+        return authority != null ? authority : new SimpleGrantedAuthority(name);
+    }
+
+    /**
+     * Instancia compartida de la authority de un rol.
+     */
+    public GrantedAuthority role(RoleEnum role) {
+        return canonical.get(roleAuthority(role));
+    }
+
+    /**
+     * Convierte el claim "authorities" del token en una lista inmutable y compartida.
+     * Equivale a AuthorityUtils.commaSeparatedStringToAuthorityList pero sin crear objetos
+     * cuando el claim ya se vio antes.
+     *
+     * @param claim authorities separadas por comas (ej: "ROLE_ADMIN,READ")
+     */
+    public List<GrantedAuthority> fromClaim(String claim) {
+        if (claim == null || claim.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = claims.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        authorities = parse(claim);
+        // Acotado: una combinación nueva solo se guarda si queda espacio
+        if (claims.size() < MAX_CLAIM_COMBINATIONS) {
+            List<GrantedAuthority> previous = claims.putIfAbsent(claim, authorities);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return authorities;
+    }
+
+    /**
+     * Codifica las authorities en una máscara para el token.
+     *
+     * @return la máscara, o -1 si alguna authority no pertenece al vocabulario conocido
+     *         (en ese caso el token debe usar el claim de texto)
+     */
+    public static long encode(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Long bit = AUTHORITY_BITS.get(authority.getAuthority());
+            if (bit == null) {
+                return -1L;
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Máscara de las authorities conocidas; las desconocidas se ignoran.
+     * Se usa para autorizar, donde una authority desconocida nunca concede nada.
+     */
+    public static long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Long bit = AUTHORITY_BITS.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Convierte una máscara del token en la lista inmutable y compartida de authorities.
+     * Orden: primero los roles y después los permisos, igual que en loadUserByUsername.
+     */
+    public List<GrantedAuthority> fromMask(long mask) {
+        List<GrantedAuthority> authorities = masks.get(mask);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        List<GrantedAuthority> decoded = new ArrayList<>();
+        for (RoleEnum role : RoleEnum.values()) {
+            if ((mask & bit(role)) != 0) {
+                decoded.add(role(role));
+            }
+        }
+        for (PermissionEnum permission : PermissionEnum.values()) {
+            if ((mask & bit(permission)) != 0) {
+                decoded.add(canonical.get(permission.name()));
+            }
+        }
+        authorities = List.copyOf(decoded);
+        // Solo hay 2^(roles + permisos) combinaciones, pero se acota igual que los claims
+        if (masks.size() < MAX_CLAIM_COMBINATIONS) {
+            List<GrantedAuthority> previous = masks.putIfAbsent(mask, authorities);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return authorities;
+    }
+
+    private List<GrantedAuthority> parse(String claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String name : claim.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                authorities.add(authority(trimmed));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+}
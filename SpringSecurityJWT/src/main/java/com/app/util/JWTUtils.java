@@ -1,18 +1,25 @@
 package com.app.util;
 
+import com.app.config.Jfr.TokenCreateEvent;
+import com.app.config.Jfr.TokenValidateEvent;
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -40,19 +47,49 @@ import java.util.stream.Collectors;
  * 2. JWTUtils.createToken() genera token con roles/permisos.
  * 3. El token se envía al cliente.
  * 4. Cada petición posterior es filtrada por JwtTokenValidator.
- * 5. JWTUtils.validateToken() verifica que el token sea válido.
+ * 5. JWTUtils.verify() verifica que el token sea válido sin lanzar excepciones.
  */
 @Component
 public class JWTUtils {
-    // Clave privada utilizada para firmar y verificar tokens
-    // Debe ser segura y se recomienda mantenerla en application.properties
-    @Value("${security.jwt.key.private}")
-    private String privateKey;
+    // Claim de texto con roles y permisos separados por comas
+    public static final String AUTHORITIES_CLAIM = "authorities";
+
+    // Claim compacto con roles y permisos como máscara de bits (ver AuthorityRegistry)
+    public static final String AUTHORITY_MASK_CLAIM = "am";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // Límite de longitud del token (protege frente a headers gigantes)
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    // Longitud en base64url sin relleno de una firma HMAC256 (32 bytes)
+    private static final int HS256_SIGNATURE_LENGTH = 43;
+
+    // Único algoritmo aceptado en el header
+    private static final byte[] HS256 = "HS256".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALG = "alg".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KID = "kid".getBytes(StandardCharsets.US_ASCII);
+
+    // readKeyId(): el header no trae kid (se usa la clave actual)
+    private static final String NO_KEY_ID = "";
+
+    // Anillo de claves: Algorithm y JWTVerifier ya construidos para cada clave (kid)
+    // La clave privada se sigue configurando en application.properties
+    @Autowired
+    private JwtKeyRing keyRing;
 
     // Identificador del generador del token (issuer)
     @Value("${security.jwt.user.generator}")
     private String userGenerator;
 
+    // Formato del claim de authorities: "string" (por defecto) o "bitmask"
+    @Value("${security.jwt.authorities.format:string}")
+    private String authoritiesFormat;
+
+    // Vida del access token; al caducar el cliente lo renueva con su refresh token (POST /auth/refresh)
+    @Value("${security.jwt.access-ttl-ms:1800000}")
+    private long accessTokenTtlMillis = 1800000;
+
     /**
      * ================================================================
      * createToken
@@ -66,70 +103,284 @@ public class JWTUtils {
      *
      * Flujo:
      * 1. Obtener username del Authentication.
-     * 2. Obtener roles y permisos y unirlos en un string separado por comas.
+     * 2. Obtener roles y permisos y unirlos en un string separado por comas,
+     *    o en una máscara de bits si el formato configurado es "bitmask".
      * 3. Configurar claims, fechas de creación y expiración, ID único.
-     * 4. Firmar token con algoritmo HMAC256.
+     * 4. Firmar token con la clave actual del anillo (HMAC256) e indicar su kid en el header.
      */
     public String createToken(Authentication authentication) {
+        TokenCreateEvent event = new TokenCreateEvent(); // JFR, deshabilitado por defecto
+        event.begin();
 
-        // Definir algoritmo de firma HMAC256 con la clave privada
-        Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
+        // Clave actual del anillo: el algoritmo HMAC256 ya está construido
+        JwtKeyRing.JwtKey signingKey = keyRing.current();
 
         // Extraer username del Authentication
         String username = authentication.getPrincipal().toString();
 
-        // Extraer roles/permisos y convertirlos en un string separado por comas
-        // Ej: "ROLE_ADMIN,READ,WRITE"
-        String authorities = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
-
         // Crear el token JWT con claims y fechas importantes
-        String jwtToken = JWT.create()
+        JWTCreator.Builder builder = JWT.create()
+                .withKeyId(signingKey.kid())                    // Clave usada para firmar (header "kid")
                 .withIssuer(this.userGenerator)                // Emisor del token (issuer)
-                .withSubject(username)                          // Sujeto del token (username)
-                .withClaim("authorities", authorities)         // Claims personalizados (roles/permisos)
+                .withSubject(username);                         // Sujeto del token (username)
+
+        // Claims personalizados (roles/permisos)
+        // En formato "bitmask" se emite un único número; si alguna authority no tiene bit
+        // asignado se usa el formato de texto para no perder información
+        long authorityMask = "bitmask".equalsIgnoreCase(this.authoritiesFormat)
+                ? AuthorityRegistry.encode(authentication.getAuthorities())
+                : -1L;
+        if (authorityMask >= 0) {
+            builder.withClaim(AUTHORITY_MASK_CLAIM, authorityMask);
+        } else {
+            // Extraer roles/permisos y convertirlos en un string separado por comas
+            // Ej: "ROLE_ADMIN,READ,WRITE"
+            String authorities = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.joining(","));
+            builder.withClaim(AUTHORITIES_CLAIM, authorities);
+        }
+
+        String jwtToken = builder
                 .withIssuedAt(new Date())                       // Fecha de emisión del token
-                .withExpiresAt(new Date(System.currentTimeMillis() + 1800000)) // Expiración en 30 minutos
+                .withExpiresAt(new Date(System.currentTimeMillis() + this.accessTokenTtlMillis)) // Expiración (30 minutos por defecto)
                 .withJWTId(UUID.randomUUID().toString())       // ID único del token
                 .withNotBefore(new Date(System.currentTimeMillis())) // Token válido desde ahora
-                .sign(algorithm);                              // Firma del token con HMAC256
+                .sign(signingKey.algorithm());                // Firma del token con HMAC256
 
+        event.finish("CREATED", username);
         return jwtToken;
     }
 
+    /**
+     * ================================================================
+     * verify
+     * ================================================================
+     *
+     * Valida un token JWT sin lanzar excepciones.
+     *
+     * @param token JWT a validar (sin el prefijo "Bearer ")
+     * @return TokenValidationResult con el token decodificado o el motivo del rechazo
+     *
+     * Flujo (de más barato a más caro):
+     * 1. Revisar la estructura: longitud, 3 segmentos y alfabeto base64url (isWellFormed).
+     * 2. Leer "alg" y "kid" del header sin Jackson ni excepciones (readKeyId): un header que no es
+     *    un objeto JSON plano o cuyo alg no es HS256 es MALFORMED. Después se verifica la firma
+     *    HMAC256 con la única clave del anillo de ese kid, comparando en tiempo constante.
+     * 3. Solo con la firma correcta se decodifica el JSON: el token lo firmamos nosotros,
+     *    así que JWT.decode() no puede fallar con un token fabricado por un atacante.
+     * 4. Comprobar emisor, "exp", "nbf" e "iat".
+     */
+    public TokenValidationResult verify(String token) {
+        // --- 1. Estructura ---
+        if (!isWellFormed(token)) {
+            return TokenValidationResult.MALFORMED;
+        }
+
+        // --- 2. Firma: HMAC256("header.payload") con la clave del kid debe coincidir con el tercer segmento ---
+        // isWellFormed ya comprobó el alfabeto y la longitud: el decoder no puede fallar
+        String kid = readKeyId(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        if (kid == null) {
+            return TokenValidationResult.MALFORMED;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        byte[] signingInput = token.getBytes(StandardCharsets.US_ASCII);
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+        if (keyRing.verifySignature(kid.isEmpty() ? null : kid, signingInput, signatureStart, signature) == null) {
+            return TokenValidationResult.BAD_SIGNATURE;
+        }
+
+        // --- 3. Decodificar header y payload ---
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            return TokenValidationResult.MALFORMED;
+        }
+
+        // --- 4. Claims registrados ---
+        long now = System.currentTimeMillis();
+        if (!this.userGenerator.equals(decodedJWT.getIssuer())) {
+            return TokenValidationResult.INVALID_CLAIMS; // solo aceptamos tokens generados por nuestro issuer
+        }
+        Date expiresAt = decodedJWT.getExpiresAt();
+        if (expiresAt != null && expiresAt.getTime() < now) {
+            return TokenValidationResult.EXPIRED;
+        }
+        Date notBefore = decodedJWT.getNotBefore();
+        Date issuedAt = decodedJWT.getIssuedAt();
+        if ((notBefore != null && notBefore.getTime() > now) || (issuedAt != null && issuedAt.getTime() > now)) {
+            return TokenValidationResult.INVALID_CLAIMS;
+        }
+
+        return TokenValidationResult.valid(decodedJWT);
+    }
+
+    /**
+     * ================================================================
+     * isWellFormed
+     * ================================================================
+     *
+     * Revisión estructural barata, previa a cualquier operación criptográfica.
+     *
+     * @param token JWT sin el prefijo "Bearer "
+     * @return true si tiene 3 segmentos base64url no vacíos, longitud razonable
+     *         y una firma del tamaño de HMAC256
+     */
+    public static boolean isWellFormed(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int dots = 0;
+        int segmentStart = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                int segmentLength = i - segmentStart;
+                // Un segmento base64 sin relleno nunca tiene longitud 4n + 1
+                if (++dots > 2 || segmentLength == 0 || segmentLength % 4 == 1) {
+                    return false;
+                }
+                segmentStart = i + 1;
+            } else if (!isBase64Url(c)) {
+                return false;
+            }
+        }
+        return dots == 2 && token.length() - segmentStart == HS256_SIGNATURE_LENGTH;
+    }
+
+    /**
+     * ================================================================
+     * extractBearerToken
+     * ================================================================
+     *
+     * Quita el prefijo "Bearer " del header.
+     *
+     * @param header valor del header Authorization / Proxy-Authorization
+     * @return el token, o null si el header no tiene el prefijo
+     */
+    public static String extractBearerToken(String header) {
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length());
+    }
+
+    /**
+     * Lee el header de un token sin lanzar excepciones.
+     *
+     * Solo acepta lo que emite createToken(): un objeto JSON plano con valores string sin escapes,
+     * ej: {"kid":"k1","alg":"HS256","typ":"JWT"}. Recorre los bytes una vez (el tamaño ya está
+     * acotado por MAX_TOKEN_LENGTH) y solo crea el String del kid.
+     *
+     * @param header header decodificado de base64url
+     * @return el kid, NO_KEY_ID si no trae, o null si el header no es válido o "alg" no es HS256
+     */
+    private static String readKeyId(byte[] header) {
+        int pos = skipWhitespace(header, 0);
+        if (pos >= header.length || header[pos] != '{') {
+            return null;
+        }
+        pos = skipWhitespace(header, pos + 1);
+        boolean algSeen = false;
+        String kid = null;
+        while (true) {
+            if (pos >= header.length || header[pos] != '"') {
+                return null;
+            }
+            int keyStart = pos + 1;
+            int keyEnd = endOfString(header, keyStart);
+            if (keyEnd < 0) {
+                return null;
+            }
+            pos = skipWhitespace(header, keyEnd + 1);
+            if (pos >= header.length || header[pos] != ':') {
+                return null;
+            }
+            pos = skipWhitespace(header, pos + 1);
+            if (pos >= header.length || header[pos] != '"') {
+                return null;
+            }
+            int valueStart = pos + 1;
+            int valueEnd = endOfString(header, valueStart);
+            if (valueEnd < 0) {
+                return null;
+            }
+            if (regionEquals(header, keyStart, keyEnd, ALG)) {
+                if (algSeen || !regionEquals(header, valueStart, valueEnd, HS256)) {
+                    return null;
+                }
+                algSeen = true;
+            } else if (regionEquals(header, keyStart, keyEnd, KID)) {
+                if (kid != null) {
+                    return null;
+                }
+                kid = new String(header, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+            }
+            pos = skipWhitespace(header, valueEnd + 1);
+            if (pos >= header.length || header[pos] != ',') {
+                break;
+            }
+            pos = skipWhitespace(header, pos + 1);
+        }
+        if (pos >= header.length || header[pos] != '}' || skipWhitespace(header, pos + 1) != header.length || !algSeen) {
+            return null;
+        }
+        return kid == null ? NO_KEY_ID : kid;
+    }
+
+    // Posición de la comilla que cierra el string, o -1 si no cierra o trae escapes/caracteres de control
+    private static int endOfString(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || (b >= 0 && b < 0x20)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int from) {
+        int i = from;
+        while (i < bytes.length && (bytes[i] == ' ' || bytes[i] == '\t' || bytes[i] == '\n' || bytes[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean regionEquals(byte[] bytes, int start, int end, byte[] expected) {
+        return end - start == expected.length && Arrays.equals(bytes, start, end, expected, 0, expected.length);
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
     /**
      * ================================================================
      * validateToken
      * ================================================================
      *
      * Valida un token JWT y devuelve el token decodificado.
+     * Para el camino de cada petición se usa verify(), que no lanza excepciones.
      *
      * @param token JWT a validar
      * @return DecodedJWT token decodificado si es válido
      * @throws JWTVerificationException si el token es inválido o expirado
-     *
-     * Flujo:
-     * 1. Definir algoritmo HMAC256 con la misma clave privada usada para crear el token.
-     * 2. Configurar un JWTVerifier con el issuer esperado.
-     * 3. Llamar a verify() para validar firma, expiración y emisor.
      */
     public DecodedJWT validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
-
-            // Configurar verificador de token
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(this.userGenerator) // solo aceptamos tokens generados por nuestro issuer
-                    .build();
-
-            // Validar token y devolverlo decodificado
-            return verifier.verify(token);
-
-        } catch (JWTVerificationException JWTe) {
-            // Si falla la verificación, lanzar excepción indicando que el token no es válido
+        TokenValidateEvent event = new TokenValidateEvent(); // JFR, deshabilitado por defecto
+        event.begin();
+        TokenValidationResult result = verify(token);
+        event.finish(result.getOutcome().name(), result.isValid() ? result.getDecodedJWT().getSubject() : null);
+        if (!result.isValid()) {
+            // Una única excepción, sin envolver otra
             throw new JWTVerificationException("Token inválido, no autorizado");
         }
+        return result.getDecodedJWT();
     }
 
     /**
@@ -146,6 +397,27 @@ public class JWTUtils {
         return decodedJWT.getSubject(); // el subject del JWT siempre es el username
     }
 
+    /**
+     * ================================================================
+     * extractAuthorities
+     * ================================================================
+     *
+     * Extrae roles y permisos del token, ya sea del claim de texto
+     * o de la máscara de bits.
+     *
+     * @param decodedJWT token ya validado
+     * @param authorityRegistry registro de authorities compartidas
+     * @return lista inmutable y compartida de authorities
+     */
+    public List<GrantedAuthority> extractAuthorities(DecodedJWT decodedJWT, AuthorityRegistry authorityRegistry) {
+        String authorities = decodedJWT.getClaim(AUTHORITIES_CLAIM).asString();
+        if (authorities != null) {
+            return authorityRegistry.fromClaim(authorities);
+        }
+        Long authorityMask = decodedJWT.getClaim(AUTHORITY_MASK_CLAIM).asLong();
+        return authorityMask != null ? authorityRegistry.fromMask(authorityMask) : List.of();
+    }
+
     /**
      * ================================================================
      * getSpecificClaim
@@ -0,0 +1,189 @@
+package com.app.util;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ================================================================
+ * JwtKeyRing
+ * ================================================================
+ *
+ * Anillo de claves HMAC256 usado por JWTUtils para firmar y verificar tokens.
+ *
+ * El Algorithm (para firmar) y la clave HMAC con su Mac ya inicializado
+ * (para verificar) se construyen una sola vez por clave en lugar de en cada petición.
+ *
+ * Rotación de claves:
+ * 1. Cada clave tiene un identificador (kid) que se escribe en el header del token.
+ * 2. Solo la clave actual firma tokens nuevos.
+ * 3. Al rotar, la clave anterior pasa a "retirada": sigue verificando
+ *    hasta que caducan los tokens que firmó (retired-ttl) y después se descarta.
+ *    Así una rotación nunca obliga a todos los clientes a volver a hacer login.
+ * 4. Al verificar se usa solo la clave del kid del header (la actual si el token no tiene kid).
+ *    Un kid desconocido o retirado se rechaza sin calcular ningún HMAC.
+ *
+ * Propiedades:
+ * - security.jwt.key.private  → secreto de la clave actual
+ * - security.jwt.key.id       → kid de la clave actual
+ * - security.jwt.key.retired  → claves anteriores "kid:secreto,kid:secreto" que aún verifican
+ * - security.jwt.key.retired-ttl → milisegundos que una clave retirada sigue verificando
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private final long retiredTtlMillis;
+
+    // Estado inmutable; se reemplaza completo en cada rotación
+    private volatile KeyRingState state;
+
+    public JwtKeyRing(@Value("${security.jwt.key.private}") String privateKey,
+                      @Value("${security.jwt.key.id:default}") String keyId,
+                      @Value("${security.jwt.key.retired:}") String retiredKeys,
+                      @Value("${security.jwt.key.retired-ttl:1800000}") long retiredTtlMillis) {
+        this.retiredTtlMillis = retiredTtlMillis;
+
+        JwtKey current = buildKey(keyId.trim(), privateKey.trim(), Long.MAX_VALUE);
+        Map<String, JwtKey> keys = new HashMap<>();
+        keys.put(current.kid(), current);
+
+        // Las claves retiradas declaradas en la configuración verifican durante retired-ttl desde el arranque
+        long retireAt = System.currentTimeMillis() + retiredTtlMillis;
+        for (String retired : retiredKeys.split(",")) {
+            if (retired.isBlank()) {
+                continue;
+            }
+            int separator = retired.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Clave retirada mal formada, se espera kid:secreto");
+            }
+            String kid = retired.substring(0, separator).trim();
+            keys.putIfAbsent(kid, buildKey(kid, retired.substring(separator + 1).trim(), retireAt));
+        }
+        this.state = KeyRingState.of(current, keys);
+    }
+
+    /**
+     * Clave actual, usada para firmar tokens nuevos.
+     */
+    public JwtKey current() {
+        return state.current();
+    }
+
+    /**
+     * Comprueba la firma HMAC256 de un token con la clave de su kid.
+     * No lanza excepciones: la comparación es en tiempo constante.
+     *
+     * @param kid kid del header del token (null = token sin kid, se usa la clave actual)
+     * @param signingInput bytes de "header.payload" en ASCII
+     * @param length longitud de "header.payload" dentro de signingInput
+     * @param signature firma del token ya decodificada de base64url
+     * @return la clave que verificó la firma, o null si el kid no existe, está retirada o la firma no coincide
+     */
+    public JwtKey verifySignature(String kid, byte[] signingInput, int length, byte[] signature) {
+        KeyRingState current = state;
+        JwtKey key = kid == null ? current.current() : current.keys().get(kid);
+        if (key == null || key.retireAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return key.matches(signingInput, length, signature) ? key : null;
+    }
+
+    /**
+     * Rota la clave de firma.
+     * La clave actual sigue verificando durante retired-ttl y las retiradas caducadas se descartan.
+     *
+     * @param kid identificador de la nueva clave
+     * @param secret secreto de la nueva clave
+     */
+    public synchronized void rotate(String kid, String secret) {
+        KeyRingState previous = state;
+        if (previous.keys().containsKey(kid)) {
+            throw new IllegalArgumentException("El kid " + kid + " ya está en uso");
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, JwtKey> keys = new HashMap<>();
+        previous.keys().values().stream()
+                .filter(key -> key.retireAtMillis() > now)
+                .forEach(key -> keys.put(key.kid(), key));
+
+        // La clave actual pasa a retirada
+        JwtKey oldCurrent = previous.current();
+        keys.put(oldCurrent.kid(), retire(oldCurrent, now + retiredTtlMillis));
+
+        JwtKey current = buildKey(kid, secret, Long.MAX_VALUE);
+        keys.put(kid, current);
+        this.state = KeyRingState.of(current, keys);
+    }
+
+    private JwtKey buildKey(String kid, String secret, long retireAtMillis) {
+        // Mismo material de clave que Algorithm.HMAC256(String): los bytes UTF-8 del secreto
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec secretKey = new SecretKeySpec(secretBytes, HMAC_SHA256);
+        try {
+            Mac prototype = Mac.getInstance(HMAC_SHA256);
+            prototype.init(secretKey);
+            return new JwtKey(kid, Algorithm.HMAC256(secretBytes), secretKey, prototype, retireAtMillis);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible en la JVM", e);
+        }
+    }
+
+    private JwtKey retire(JwtKey key, long retireAtMillis) {
+        return new JwtKey(key.kid(), key.algorithm(), key.secretKey(), key.macPrototype(), retireAtMillis);
+    }
+
+    /**
+     * Clave del anillo con su Algorithm y su Mac ya construidos.
+     *
+     * @param kid identificador de la clave
+     * @param algorithm algoritmo HMAC256 para firmar
+     * @param secretKey clave HMAC para verificar
+     * @param macPrototype Mac ya inicializado; nunca se usa directamente, solo se clona
+     * @param retireAtMillis instante a partir del cual deja de verificar
+     */
+    public record JwtKey(String kid, Algorithm algorithm, SecretKeySpec secretKey, Mac macPrototype,
+                         long retireAtMillis) {
+
+        // Calcula el HMAC de signingInput y lo compara en tiempo constante con la firma
+        boolean matches(byte[] signingInput, int length, byte[] signature) {
+            Mac mac = newMac();
+            mac.update(signingInput, 0, length);
+            return MessageDigest.isEqual(mac.doFinal(), signature);
+        }
+
+        // Mac no es seguro entre hilos: se clona el prototipo ya inicializado (más barato que init)
+        private Mac newMac() {
+            try {
+                return (Mac) macPrototype.clone();
+            } catch (CloneNotSupportedException e) {
+                try {
+                    Mac mac = Mac.getInstance(HMAC_SHA256);
+                    mac.init(secretKey);
+                    return mac;
+                } catch (GeneralSecurityException ex) {
+                    throw new IllegalStateException("HmacSHA256 no disponible en la JVM", ex);
+                }
+            }
+        }
+    }
+
+    // Estado inmutable: clave actual y claves vigentes por kid
+    private record KeyRingState(JwtKey current, Map<String, JwtKey> keys) {
+
+        static KeyRingState of(JwtKey current, Map<String, JwtKey> keys) {
+            return new KeyRingState(current, Map.copyOf(keys));
+        }
+    }
+}
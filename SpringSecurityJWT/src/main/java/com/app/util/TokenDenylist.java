@@ -0,0 +1,223 @@
+package com.app.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ================================================================
+ * TokenDenylist
+ * ================================================================
+ *
+ * Lista de access tokens revocados antes de su "exp" (logout), indexada por su "jti".
+ *
+ * Casi ningún token que llega está revocado, así que la consulta tiene que costar casi nada:
+ * 1. Sin revocaciones vigentes se responde "no revocado" sin más.
+ * 2. Un filtro de Bloom delante del mapa responde "seguro que no está" con unas pocas
+ *    lecturas de bits, sin crear objetos ni tocar el mapa.
+ * 3. Solo si el filtro dice "puede estar" se consulta el mapa jti → exp (que descarta los falsos positivos).
+ *
+ * Cada jti se guarda hasta el "exp" de su token: después el token ya es inválido por sí mismo.
+ * purgeExpired() borra los caducados y reconstruye el filtro (un filtro de Bloom no permite
+ * borrar), así la memoria depende solo de los tokens revocados que siguen vivos.
+ *
+ * Las escrituras (revocar, purgar) van con un ReentrantLock: son raras y así el filtro
+ * reconstruido nunca pierde un jti. Las lecturas no bloquean.
+ */
+@Component
+public class TokenDenylist {
+
+    // Mínimo de jti para los que se dimensiona el filtro
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    // jti → instante "exp" del token en milisegundos
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    // Se reemplaza completo al reconstruirlo; quien lo está leyendo sigue viendo uno coherente
+    private volatile BloomFilter filter;
+
+    // ReentrantLock y no synchronized: con hilos virtuales no deja fijado (pinned) el hilo portador
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final LongAdder revocations = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+
+    public TokenDenylist(@Value("${security.jwt.revocation.expected-entries:10000}") int expectedEntries,
+                         @Value("${security.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedEntries = Math.max(1, expectedEntries);
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(this.expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Indica si el token con este jti fue revocado y sigue vivo.
+     *
+     * @param jti claim "jti" del token (null = token sin id, no se puede revocar)
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || revoked.isEmpty()) {
+            return false;
+        }
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoca un token hasta su expiración.
+     *
+     * @param jti claim "jti" del token
+     * @param expiresAtMillis instante "exp" del token en milisegundos
+     */
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return; // Ya caducado: no hay nada que revocar
+        }
+        writeLock.lock();
+        try {
+            if (revoked.put(jti, expiresAtMillis) == null) {
+                revocations.increment();
+                BloomFilter current = filter;
+                current.add(jti);
+                // Más jti de los previstos: la tasa de falsos positivos sube, se redimensiona
+                if (revoked.size() > current.capacity()) {
+                    rebuild();
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Borra los jti cuyo token ya caducó y reconstruye el filtro sin ellos.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            int removed = 0;
+            Iterator<Long> iterator = revoked.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() <= now) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                purged.add(removed);
+                rebuild();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Filtro nuevo con los jti vigentes; se publica ya completo (llamar con writeLock)
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        this.filter = rebuilt;
+    }
+
+    public long getRevocationCount() {
+        return revocations.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    public long getPurgedCount() {
+        return purged.sum();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Filtro de Bloom de tamaño fijo sobre un AtomicLongArray.
+     *
+     * Las k posiciones salen de dos hashes de 64 bits (h1 + i·h2), calculados una sola vez por consulta.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final int capacity;
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            // m = -n·ln(p) / ln(2)², k = m/n·ln(2)
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        void add(String key) {
+            long h1 = hash(key);
+            long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = hash(key);
+            long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a de 64 bits sobre los caracteres, mezclado después para repartir bien los bits
+        private static long hash(String key) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+            return fmix64(hash);
+        }
+
+        // Finalizador de MurmurHash3
+        private static long fmix64(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB93FE1A85A53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.util;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+/**
+ * ================================================================
+ * TokenValidationResult
+ * ================================================================
+ *
+ * Resultado de JWTUtils.verify(): indica si el token es válido y, si no,
+ * el motivo, sin lanzar excepciones.
+ *
+ * Los resultados de rechazo son constantes compartidas, así que rechazar
+ * un token no crea ningún objeto (ni excepción ni stack trace).
+ */
+public final class TokenValidationResult {
+
+    /**
+     * Motivo del resultado de la validación.
+     */
+    public enum Outcome {
+        VALID,
+        MALFORMED,      // Prefijo, número de segmentos, alfabeto o longitud incorrectos
+        BAD_SIGNATURE,  // Ninguna clave del anillo verifica la firma
+        EXPIRED,        // "exp" ya pasó
+        INVALID_CLAIMS, // Emisor incorrecto, o "nbf"/"iat" en el futuro
+        REVOKED         // Firma y claims correctos, pero su "jti" está en TokenDenylist (logout)
+    }
+
+    public static final TokenValidationResult MALFORMED = new TokenValidationResult(Outcome.MALFORMED, null);
+    public static final TokenValidationResult BAD_SIGNATURE = new TokenValidationResult(Outcome.BAD_SIGNATURE, null);
+    public static final TokenValidationResult EXPIRED = new TokenValidationResult(Outcome.EXPIRED, null);
+    public static final TokenValidationResult INVALID_CLAIMS = new TokenValidationResult(Outcome.INVALID_CLAIMS, null);
+
+    private final Outcome outcome;
+    private final DecodedJWT decodedJWT;
+
+    private TokenValidationResult(Outcome outcome, DecodedJWT decodedJWT) {
+        this.outcome = outcome;
+        this.decodedJWT = decodedJWT;
+    }
+
+    /**
+     * Resultado de un token válido.
+     */
+    public static TokenValidationResult valid(DecodedJWT decodedJWT) {
+        return new TokenValidationResult(Outcome.VALID, decodedJWT);
+    }
+
+    public boolean isValid() {
+        return outcome == Outcome.VALID;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Token decodificado; solo disponible si el resultado es válido.
+     */
+    public DecodedJWT getDecodedJWT() {
+        return decodedJWT;
+    }
+}
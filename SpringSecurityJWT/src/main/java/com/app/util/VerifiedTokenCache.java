@@ -0,0 +1,189 @@
+package com.app.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ================================================================
+ * VerifiedTokenCache
+ * ================================================================
+ *
+ * Caché acotada y concurrente de tokens JWT ya verificados.
+ *
+ * Los clientes reutilizan el mismo token durante sus 30 minutos de vida,
+ * así que no tiene sentido recalcular el HMAC y parsear el JSON en cada petición.
+ *
+ * Funcionamiento:
+ * 1. La clave es el SHA-256 del token completo (incluida la firma),
+ *    por lo que un token manipulado nunca coincide con una entrada válida.
+ * 2. Cada entrada guarda el username, la colección de authorities ya construida y el "jti"
+ *    (JwtTokenValidator consulta TokenDenylist también con los tokens en caché).
+ * 3. La entrada caduca en el "exp" del propio token.
+ * 4. Si la caché se llena, primero se eliminan las entradas caducadas
+ *    y, si no basta, una fracción arbitraria de las restantes.
+ *
+ * Expone contadores de aciertos, fallos y desalojos.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // MessageDigest no es seguro entre hilos: se clona este prototipo en cada búsqueda.
+    // No se usa un ThreadLocal porque con hilos virtuales cada petición tiene un hilo nuevo
+    // y el ThreadLocal crearía (y descartaría) un MessageDigest por petición
+    private static final MessageDigest SHA_256 = sha256();
+
+    private final Map<TokenKey, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Devuelve la entrada verificada del token, o null si no está en caché o ya expiró.
+     *
+     * @param token JWT sin el prefijo "Bearer "
+     */
+    public VerifiedToken get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        TokenKey key = TokenKey.of(token);
+        VerifiedToken verified = entries.get(key);
+        if (verified == null) {
+            misses.increment();
+            return null;
+        }
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            // Token caducado: se elimina y se fuerza la validación completa
+            if (entries.remove(key, verified)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return verified;
+    }
+
+    /**
+     * Guarda un token que ya pasó la verificación completa de firma, expiración y emisor.
+     *
+     * @param token JWT sin el prefijo "Bearer "
+     * @param username subject del token
+     * @param authorities authorities ya convertidas a GrantedAuthority
+     * @param authorityMask máscara de bits de las authorities
+     * @param expiresAtMillis instante "exp" del token en milisegundos
+     * @return la entrada creada (también cuando la caché está deshabilitada)
+     */
+    public VerifiedToken put(String token, String username, Collection<? extends GrantedAuthority> authorities,
+                             long authorityMask, long expiresAtMillis) {
+        return put(token, username, authorities, authorityMask, expiresAtMillis, null);
+    }
+
+    /**
+     * Igual que put(...) pero guardando también el "jti" del token, para poder revocarlo.
+     *
+     * @param tokenId claim "jti" del token (puede ser null)
+     */
+    public VerifiedToken put(String token, String username, Collection<? extends GrantedAuthority> authorities,
+                             long authorityMask, long expiresAtMillis, String tokenId) {
+        VerifiedToken verified = new VerifiedToken(username, List.copyOf(authorities), authorityMask, expiresAtMillis, tokenId);
+        long now = System.currentTimeMillis();
+        if (maxEntries <= 0 || expiresAtMillis <= now) {
+            return verified;
+        }
+        if (entries.size() >= maxEntries) {
+            evictions.add(BoundedEviction.makeRoom(entries, maxEntries, entry -> entry.expiresAtMillis() <= now));
+        }
+        entries.put(TokenKey.of(token), verified);
+        return verified;
+    }
+
+    /**
+     * Vacía la caché, por ejemplo cuando cambia la clave de firma.
+     */
+    public void clear() {
+        int size = entries.size();
+        entries.clear();
+        evictions.add(size);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Datos de un token ya verificado.
+     *
+     * @param username subject del token
+     * @param authorities roles y permisos listos para el SecurityContext
+     * @param authorityMask máscara de bits de roles y permisos
+     * @param expiresAtMillis instante de expiración del token
+     * @param tokenId claim "jti" del token (null si no tiene)
+     */
+    public record VerifiedToken(String username,
+                                Collection<? extends GrantedAuthority> authorities,
+                                long authorityMask,
+                                long expiresAtMillis,
+                                String tokenId) {
+
+        public VerifiedToken(String username, Collection<? extends GrantedAuthority> authorities,
+                             long authorityMask, long expiresAtMillis) {
+            this(username, authorities, authorityMask, expiresAtMillis, null);
+        }
+    }
+
+    // Digest SHA-256 del token guardado como 4 longs para no crear Strings en cada búsqueda
+    private record TokenKey(long a, long b, long c, long d) {
+
+        static TokenKey of(String token) {
+            MessageDigest digest = newDigest();
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+
+        private static MessageDigest newDigest() {
+            try {
+                return (MessageDigest) SHA_256.clone();
+            } catch (CloneNotSupportedException e) {
+                return sha256();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.Service;
+
+import com.app.Service.RefreshTokenStore.RefreshTokenRecord;
+import com.app.Service.RefreshTokenStore.Status;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * InMemoryRefreshTokenStore: revocación por familia y memoria acotada a las rotaciones recientes.
+ */
+class InMemoryRefreshTokenStoreTests {
+
+    private static final long FAMILY_EXPIRES_AT = 1_000_000L;
+
+    private final InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore();
+
+    private RefreshTokenRecord save(String hash, String familyId) {
+        RefreshTokenRecord token = new RefreshTokenRecord(hash, "Duzz", familyId, FAMILY_EXPIRES_AT);
+        store.save(token);
+        return token;
+    }
+
+    @Test
+    void revokingFamilyLeavesOtherFamiliesAlone() {
+        save("a1", "family-a");
+        save("b1", "family-b");
+
+        store.revokeFamily("family-a");
+
+        assertEquals(Status.REUSED, store.consume("a1", 10L).status());
+        assertEquals(Status.VALID, store.consume("b1", 10L).status());
+        // Un token emitido después de revocar su familia tampoco sirve
+        save("a2", "family-a");
+        assertEquals(Status.REUSED, store.consume("a2", 20L).status());
+    }
+
+    @Test
+    void purgeDropsUsedTokensAfterReuseWindow() {
+        // Tres rotaciones: a1 y a2 usados, a3 vigente
+        save("a1", "family-a");
+        store.consume("a1", 100L);
+        save("a2", "family-a");
+        store.consume("a2", 200L);
+        save("a3", "family-a");
+
+        // a1 se usó antes de la ventana: se borra; a2 aún sirve para detectar reutilización
+        assertEquals(1, store.purgeExpired(300L, 150L));
+        assertEquals(2, store.size());
+        assertEquals(Status.NOT_FOUND, store.consume("a1", 300L).status());
+        assertEquals(Status.REUSED, store.consume("a2", 300L).status());
+
+        // El token vigente no se borra por la ventana, solo al caducar la familia
+        assertEquals(1, store.purgeExpired(400L, 350L));
+        assertEquals(1, store.size());
+        store.revokeFamily("family-a");
+        assertEquals(Status.REUSED, store.consume("a3", 400L).status());
+
+        assertEquals(1, store.purgeExpired(FAMILY_EXPIRES_AT, FAMILY_EXPIRES_AT - 1));
+        assertEquals(0, store.size());
+    }
+}
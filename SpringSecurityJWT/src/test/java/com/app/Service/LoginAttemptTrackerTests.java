@@ -0,0 +1,123 @@
+package com.app.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bloqueo por logins fallidos (H2 embebida, perfil "test").
+ * El flush programado se aleja para que solo escriba el flush() explícito del test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "security.login-lockout.max-failures=3",
+        "security.login-lockout.flush-interval-ms=3600000"
+})
+class LoginAttemptTrackerTests {
+
+    @Autowired
+    private UserDetailServiceimpl userDetailServiceimpl;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Test
+    void locksAfterMaxFailuresAndFlushesOneRowPerUser() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(BadCredentialsException.class, () -> userDetailServiceimpl.authenticate("Paul", "wrong"));
+        }
+        assertTrue(loginAttemptTracker.isLocked("paul"));
+
+        // Bloqueada: ni siquiera la contraseña correcta entra (y no se consulta la DB ni BCrypt)
+        assertThrows(LockedException.class, () -> userDetailServiceimpl.authenticate("Paul", "1234"));
+        assertEquals(1, loginAttemptTracker.getPendingCount());
+
+        long flushedBefore = loginAttemptTracker.getFlushedRowCount();
+        loginAttemptTracker.flush();
+
+        // Cuatro intentos, una sola escritura
+        assertEquals(1, loginAttemptTracker.getFlushedRowCount() - flushedBefore);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT failed_attempts, account_No_Locked FROM users WHERE username = 'Paul'");
+        assertEquals(3, ((Number) row.get("failed_attempts")).intValue());
+        assertFalse((Boolean) row.get("account_No_Locked"));
+
+        // Ya escrito: la memoria se libera y el bloqueo se lee de la DB
+        assertFalse(loginAttemptTracker.isLocked("Paul"));
+        assertThrows(LockedException.class, () -> userDetailServiceimpl.authenticate("Paul", "1234"));
+
+        loginAttemptTracker.unlock("Paul");
+        loginAttemptTracker.flush();
+        userDetailServiceimpl.authenticate("Paul", "1234");
+        loginAttemptTracker.flush();
+
+        Map<String, Object> unlocked = jdbcTemplate.queryForMap(
+                "SELECT failed_attempts, account_No_Locked, last_login_at FROM users WHERE username = 'Paul'");
+        assertEquals(0, ((Number) unlocked.get("failed_attempts")).intValue());
+        assertTrue((Boolean) unlocked.get("account_No_Locked"));
+        assertNotNull(unlocked.get("last_login_at"));
+        assertFalse(loginAttemptTracker.isLocked("Paul"));
+    }
+
+    @Test
+    void failureCountContinuesFromDatabaseAfterFlush() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class, () -> userDetailServiceimpl.authenticate("Paul", "wrong"));
+        }
+        loginAttemptTracker.flush();
+        assertEquals(0, loginAttemptTracker.getPendingCount());
+
+        // El tercer fallo parte de los 2 guardados en failed_attempts
+        assertThrows(BadCredentialsException.class, () -> userDetailServiceimpl.authenticate("Paul", "wrong"));
+        assertTrue(loginAttemptTracker.isLocked("Paul"));
+
+        loginAttemptTracker.unlock("Paul");
+        loginAttemptTracker.flush();
+        userDetailServiceimpl.authenticate("Paul", "1234");
+        loginAttemptTracker.flush();
+    }
+
+    @Test
+    void unlockedRowWithStaleCounterStartsFromZero() {
+        // Desbloqueo hecho a mano en la DB sin reiniciar failed_attempts
+        jdbcTemplate.update("UPDATE users SET failed_attempts = 7, account_No_Locked = true WHERE username = 'Paul'");
+        userDetailsCache.invalidate("Paul");
+        long lockoutsBefore = loginAttemptTracker.getLockoutCount();
+
+        // El primer fallo no vuelve a bloquear: cuenta desde 0
+        assertThrows(BadCredentialsException.class, () -> userDetailServiceimpl.authenticate("Paul", "wrong"));
+        assertFalse(loginAttemptTracker.isLocked("Paul"));
+
+        // Al llegar al umbral se bloquea y se cuenta el bloqueo
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class, () -> userDetailServiceimpl.authenticate("Paul", "wrong"));
+        }
+        assertTrue(loginAttemptTracker.isLocked("Paul"));
+        assertEquals(1, loginAttemptTracker.getLockoutCount() - lockoutsBefore);
+
+        loginAttemptTracker.unlock("Paul");
+        loginAttemptTracker.flush();
+        userDetailServiceimpl.authenticate("Paul", "1234");
+        loginAttemptTracker.flush();
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * RefreshTokenService: rotación de un solo uso y revocación de la familia al reutilizar un token.
+ */
+class RefreshTokenServiceTests {
+
+    private RefreshTokenService newService() {
+        RefreshTokenService service = new RefreshTokenService();
+        ReflectionTestUtils.setField(service, "refreshTokenStore", new InMemoryRefreshTokenStore());
+        ReflectionTestUtils.setField(service, "ttlMillis", 60_000L);
+        return service;
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesFamily() {
+        RefreshTokenService service = newService();
+
+        String first = service.issue("Duzz");
+        RefreshTokenStore.RefreshTokenRecord consumed = service.consume(first);
+        assertEquals("Duzz", consumed.username());
+        String second = service.issueNext(consumed);
+        assertNotEquals(first, second);
+
+        // El token ya rotado se presenta otra vez: se revoca toda la familia
+        assertThrows(InvalidRefreshTokenException.class, () -> service.consume(first));
+        assertEquals(1, service.getReuseCount());
+        assertThrows(InvalidRefreshTokenException.class, () -> service.consume(second));
+
+        // Otras familias no se ven afectadas
+        assertEquals("Noe", service.consume(service.issue("Noe")).username());
+        assertThrows(InvalidRefreshTokenException.class, () -> service.consume("desconocido"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.app.Service;
+
+import com.app.persistence.Entity.PermissionEntity;
+import com.app.persistence.Entity.RoleEntity;
+import com.app.persistence.Entity.RoleEnum;
+import com.app.persistence.Repository.RoleRespository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RoleCatalog: cargado al arrancar y recargado, en su propia transacción, tras cada commit que toca roles o permisos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RoleCatalogTests {
+
+    @Autowired
+    private RoleCatalog roleCatalog;
+
+    @Autowired
+    private RoleRespository roleRespository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void snapshotIsLoaded() {
+        RoleCatalog.CatalogRole admin = roleCatalog.get(RoleEnum.ADMIN);
+        assertNotNull(admin);
+        assertEquals("ROLE_ADMIN", admin.roleAuthority().getAuthority());
+    }
+
+    @Test
+    void reloadsCommittedPermissionChange() {
+        // Alta de un permiso en DEVELOPER: RoleCatalogListener programa la recarga tras el commit
+        transactionTemplate.executeWithoutResult(status ->
+                role(RoleEnum.DEVELOPER).getPermisos().add(PermissionEntity.builder().name("AUDIT").build()));
+        try {
+            assertTrue(permissionNames(RoleEnum.DEVELOPER).contains("AUDIT"));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                RoleEntity developer = role(RoleEnum.DEVELOPER);
+                PermissionEntity audit = developer.getPermisos().stream()
+                        .filter(permission -> permission.getName().equals("AUDIT"))
+                        .findFirst().orElseThrow();
+                developer.getPermisos().remove(audit);
+                entityManager.remove(audit);
+            });
+        }
+        assertFalse(permissionNames(RoleEnum.DEVELOPER).contains("AUDIT"));
+        assertTrue(permissionNames(RoleEnum.DEVELOPER).contains("REFACTOR"));
+    }
+
+    private RoleEntity role(RoleEnum roleEnum) {
+        for (RoleEntity role : roleRespository.findAll()) {
+            if (role.getRoleEnum() == roleEnum) {
+                return role;
+            }
+        }
+        throw new IllegalStateException("Rol no encontrado: " + roleEnum);
+    }
+
+    private List<String> permissionNames(RoleEnum role) {
+        return roleCatalog.get(role).permissions().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
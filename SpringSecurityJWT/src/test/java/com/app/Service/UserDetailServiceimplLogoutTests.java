@@ -0,0 +1,71 @@
+package com.app.Service;
+
+import com.app.config.Filter.JwtAuthentication;
+import com.app.controller.DTO.AuthRefreshRequest;
+import com.app.controller.DTO.AuthResponse;
+import com.app.util.TokenDenylist;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * logout: solo revoca refresh tokens del propio usuario e informa cuando no había nada que cerrar.
+ */
+class UserDetailServiceimplLogoutTests {
+
+    private final RefreshTokenService refreshTokenService = new RefreshTokenService();
+    private final TokenDenylist tokenDenylist = new TokenDenylist(100, 0.01);
+    private final UserDetailServiceimpl service = new UserDetailServiceimpl();
+
+    UserDetailServiceimplLogoutTests() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenStore", new InMemoryRefreshTokenStore());
+        ReflectionTestUtils.setField(refreshTokenService, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(service, "refreshTokenService", refreshTokenService);
+        ReflectionTestUtils.setField(service, "tokenDenylist", tokenDenylist);
+    }
+
+    private static Authentication jwt(String username, String tokenId) {
+        return new JwtAuthentication(username, List.of(), 0L, tokenId, System.currentTimeMillis() + 60_000L);
+    }
+
+    @Test
+    void revokesOwnAccessAndRefreshTokens() {
+        String refreshToken = refreshTokenService.issue("Duzz");
+
+        AuthResponse response = service.logout(jwt("Duzz", "jti-1"), new AuthRefreshRequest(refreshToken));
+
+        assertTrue(response.status());
+        assertTrue(tokenDenylist.isRevoked("jti-1"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.consume(refreshToken));
+    }
+
+    @Test
+    void rejectsRefreshTokenOfAnotherUser() {
+        String victimToken = refreshTokenService.issue("Noe");
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> service.logout(jwt("Duzz", "jti-2"), new AuthRefreshRequest(victimToken)));
+
+        // No se revocó nada: ni el access token del que llama ni la sesión de la víctima
+        assertFalse(tokenDenylist.isRevoked("jti-2"));
+        assertEquals("Noe", refreshTokenService.consume(victimToken).username());
+    }
+
+    @Test
+    void reportsLogoutWithNothingToRevoke() {
+        Authentication basic = new UsernamePasswordAuthenticationToken("Duzz", null, List.of());
+
+        AuthResponse response = service.logout(basic, null);
+
+        assertFalse(response.status());
+        assertEquals(0, tokenDenylist.size());
+    }
+}
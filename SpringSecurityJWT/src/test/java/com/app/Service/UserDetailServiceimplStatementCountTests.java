@@ -0,0 +1,120 @@
+package com.app.Service;
+
+import com.app.controller.DTO.AuthBatchResponse;
+import com.app.controller.DTO.AuthCreateRoleRequest;
+import com.app.controller.DTO.AuthCreateUserRequest;
+import com.app.controller.DTO.AuthResponse;
+import com.app.util.JWTUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cuenta las sentencias SQL que lanza cada operación sobre usuarios (H2 embebida, perfil "test").
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserDetailServiceimplStatementCountTests {
+
+    @Autowired
+    private UserDetailServiceimpl userDetailServiceimpl;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    private static final int BATCH_USERS = 100;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userDetailsCache.invalidateAll();
+        statistics.clear();
+    }
+
+    @Test
+    void loadUserByUsernameIssuesOneStatement() {
+        UserDetails user = userDetailServiceimpl.loadUserByUsername("Duzz");
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        Set<String> authorities = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_DEVELOPER", "CREATE", "READ", "UPDATE", "DELETE", "REFACTOR"), authorities);
+    }
+
+    @Test
+    void cachedLoadUserByUsernameIssuesNoStatement() {
+        userDetailServiceimpl.loadUserByUsername("Noe");
+        statistics.clear();
+
+        userDetailServiceimpl.loadUserByUsername("Noe");
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createUserResolvesRolesWithoutQueries() {
+        AuthResponse response = userDetailServiceimpl.createUser(new AuthCreateUserRequest("catalog-user", "1234",
+                new AuthCreateRoleRequest(List.of("DEVELOPER"))));
+
+        assertTrue(response.status());
+        // Roles y permisos salen de RoleCatalog: ni consultas ni carga de RoleEntity/PermissionEntity
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        String authorities = jwtUtils.validateToken(response.jwt()).getClaim(JWTUtils.AUTHORITIES_CLAIM).asString();
+        assertEquals(Set.of("ROLE_DEVELOPER", "CREATE", "READ", "UPDATE", "DELETE", "REFACTOR"),
+                Set.of(authorities.split(",")));
+    }
+
+    @Test
+    void createUserInsertsOnlyUserAndUserRoles() {
+        userDetailServiceimpl.createUser(new AuthCreateUserRequest("lean-user", "1234",
+                new AuthCreateRoleRequest(List.of("USER", "INVITED"))));
+
+        // Un INSERT en users y las filas de user_roles; roles y permisos no se escriben
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionUpdateCount());
+    }
+
+    @Test
+    void createUsersInsertsInJdbcBatches() {
+        List<AuthCreateUserRequest> requests = IntStream.range(0, BATCH_USERS)
+                .mapToObj(i -> new AuthCreateUserRequest("batch-user-" + i, "1234",
+                        new AuthCreateRoleRequest(List.of("USER"))))
+                .toList();
+
+        AuthBatchResponse response = userDetailServiceimpl.createUsers(requests);
+
+        assertEquals(BATCH_USERS, response.created());
+        // Con IDENTITY serían al menos 2 sentencias por usuario (users + user_roles);
+        // con lotes de 50 son unas pocas por tanda, sin depender del número de usuarios
+        assertTrue(statistics.getPrepareStatementCount() < BATCH_USERS / 5,
+                "sentencias preparadas: " + statistics.getPrepareStatementCount());
+    }
+}
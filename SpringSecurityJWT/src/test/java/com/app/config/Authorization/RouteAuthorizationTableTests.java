@@ -0,0 +1,122 @@
+package com.app.config.Authorization;
+
+import com.app.config.SecurityConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La tabla compilada de SecurityConfig decide exactamente igual que la cadena de requestMatchers
+ * que reemplaza, para todas las combinaciones de método, ruta y usuario.
+ */
+class RouteAuthorizationTableTests {
+
+    private static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+    private static final List<String> PATHS = List.of(
+            "/", "/error", "/auth", "/auth/", "/authx", "/auth/log-in", "/auth/sing-up",
+            "/auth/sing-up/batch", "/auth/sing-up/batch/", "/auth/logout", "/auth/sing-up/batch/x", "/auth/a/b/c",
+            "/method/get", "/method/post", "/method/post/", "/method/patch", "/method/p%61tch", "/method/patch/x",
+            "/actuator/health", "/actuator/prometheus", "/actuator/env", "/actuator/health/liveness");
+
+    private final RouteAuthorizationTable table = new SecurityConfig().routeAuthorizationTable();
+
+    // Cadena de requestMatchers tal y como estaba en SecurityConfig.securityFilterChain (más el logout)
+    private final AuthorizationManager<HttpServletRequest> matcherChain = legacyChain();
+
+    @Test
+    void sameDecisionsAsRequestMatcherChain() {
+        List<Authentication> users = users();
+        int checked = 0;
+        for (String method : METHODS) {
+            for (String path : PATHS) {
+                MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+                for (Authentication user : users) {
+                    AuthorizationDecision expected = matcherChain.check(() -> user, request);
+                    AuthorizationDecision actual = table.check(() -> user, new RequestAuthorizationContext(request));
+                    assertEquals(expected.isGranted(), actual.isGranted(),
+                            method + " " + path + " como " + (user != null ? user.getAuthorities() : "anónimo"));
+                    checked++;
+                }
+            }
+        }
+        assertEquals(METHODS.size() * PATHS.size() * users.size(), checked);
+    }
+
+    @Test
+    void onlyPublicRoutesSkipTheJwtFilter() {
+        assertTrue(table.isPermitAll(new MockHttpServletRequest("POST", "/auth/log-in")));
+        assertTrue(table.isPermitAll(new MockHttpServletRequest("GET", "/actuator/health")));
+        // Las métricas necesitan un ADMIN autenticado
+        assertFalse(table.isPermitAll(new MockHttpServletRequest("GET", "/actuator/prometheus")));
+        // La regla de ADMIN se declara antes que "/auth/**": necesita el token
+        assertFalse(table.isPermitAll(new MockHttpServletRequest("POST", "/auth/sing-up/batch")));
+        assertFalse(table.isPermitAll(new MockHttpServletRequest("POST", "/auth/logout")));
+        assertFalse(table.isPermitAll(new MockHttpServletRequest("GET", "/auth/log-in")));
+        assertFalse(table.isPermitAll(new MockHttpServletRequest("PATCH", "/method/patch")));
+    }
+
+    @Test
+    void rejectsUnsupportedPatterns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteAuthorizationTable.builder().permitAll(HttpMethod.GET, "/a/**/b").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteAuthorizationTable.builder().permitAll(HttpMethod.GET, "/a/*.json").build());
+    }
+
+    // Referencia independiente del código nuevo: las authorities por nombre (AuthorityAuthorizationManager),
+    // como hacían hasRole/hasAnyRole/hasAuthority en requestMatchers, y en el mismo orden
+    private static AuthorizationManager<HttpServletRequest> legacyChain() {
+        PathPatternRequestMatcher.Builder path = PathPatternRequestMatcher.withDefaults();
+        AuthorizationManager<RequestAuthorizationContext> permitAll = (a, c) -> new AuthorizationDecision(true);
+        AuthorizationManager<RequestAuthorizationContext> denyAll = (a, c) -> new AuthorizationDecision(false);
+        return RequestMatcherDelegatingAuthorizationManager.builder()
+                .add(path.matcher(HttpMethod.POST, "/auth/sing-up/batch"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+                .add(path.matcher(HttpMethod.POST, "/auth/logout"), AuthenticatedAuthorizationManager.authenticated())
+                .add(path.matcher(HttpMethod.POST, "/auth/**"), permitAll)
+                .add(path.matcher(HttpMethod.GET, "/actuator/health"), permitAll)
+                .add(path.matcher(HttpMethod.GET, "/actuator/prometheus"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+                .add(path.matcher(HttpMethod.POST, "/method/post"), AuthorityAuthorizationManager.hasAnyRole("ADMIN", "DEVELOPER"))
+                .add(path.matcher(HttpMethod.PATCH, "/method/patch"), AuthorityAuthorizationManager.hasAuthority("REFACTOR"))
+                .add(AnyRequestMatcher.INSTANCE, denyAll)
+                .build();
+    }
+
+    // Anónimo, sin sesión y un usuario por rol con los permisos que le da el catálogo
+    private static List<Authentication> users() {
+        List<Authentication> users = new ArrayList<>();
+        users.add(null);
+        users.add(new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        users.add(user("ROLE_ADMIN", "CREATE", "READ", "UPDATE", "DELETE"));
+        users.add(user("ROLE_DEVELOPER", "CREATE", "READ", "UPDATE", "DELETE", "REFACTOR"));
+        users.add(user("ROLE_USER", "READ"));
+        users.add(user("ROLE_INVITED", "READ"));
+        users.add(user("REFACTOR"));
+        return users;
+    }
+
+    private static Authentication user(String... authorities) {
+        return UsernamePasswordAuthenticationToken.authenticated("user", null, AuthorityUtils.createAuthorityList(authorities));
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.config.Filter;
+
+import com.app.config.Password.PasswordHashingOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * HTTP Basic con el pool de hashing saturado: 503 + Retry-After, no 401.
+ */
+class HashingOverloadAuthenticationEntryPointTests {
+
+    private static MockHttpServletResponse basicLogin(AuthenticationException failure) throws Exception {
+        AuthenticationManager manager = authentication -> {
+            throw failure;
+        };
+        BasicAuthenticationFilter filter = new BasicAuthenticationFilter(manager,
+                new HashingOverloadAuthenticationEntryPoint("Realm"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/method/get");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic "
+                + Base64.getEncoder().encodeToString("Duzz:1234".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void overloadedHashingPoolReturns503WithRetryAfter() throws Exception {
+        MockHttpServletResponse response = basicLogin(new PasswordHashingOverloadedException("saturado", 2L));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+    }
+
+    @Test
+    void wrappedOverloadReturns503() throws Exception {
+        MockHttpServletResponse response = basicLogin(new InternalAuthenticationServiceException("saturado",
+                new PasswordHashingOverloadedException("saturado", 1L)));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void badCredentialsStillReturn401() throws Exception {
+        MockHttpServletResponse response = basicLogin(new BadCredentialsException("Invalid password"));
+
+        assertEquals(401, response.getStatus());
+        assertNotNull(response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,129 @@
+package com.app.config.Filter;
+
+import com.app.config.Metrics.SecurityMetrics;
+import com.app.util.AuthorityRegistry;
+import com.app.util.JWTUtils;
+import com.app.util.JwtKeyRing;
+import com.app.util.TokenDenylist;
+import com.app.util.VerifiedTokenCache;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JwtTokenValidator con VerifiedTokenCache: aciertos, fallos y desalojos de la caché,
+ * y que un token revocado o caducado nunca se sirva desde ella.
+ *
+ * El coste por petición con y sin caché se mide en SpringSecurityJWT-jmh (JwtTokenValidatorBenchmark).
+ */
+class JwtTokenValidatorCacheTests {
+
+    private JWTUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", new JwtKeyRing(
+                "3629555f0a4fd3c7916a247b548671c078717483a2e6d0a524daeb40d5b622b2", "k1", "", 1800000));
+        ReflectionTestUtils.setField(jwtUtils, "userGenerator", "DUZZJWT-BACKEND");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1_000);
+        JwtTokenValidator filter = new JwtTokenValidator(jwtUtils, cache, new AuthorityRegistry());
+        String token = createToken();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, filter(filter, token).getStatus());
+        }
+
+        // Solo la primera petición pasa por la validación completa
+        assertEquals(1, cache.getMissCount());
+        assertEquals(9, cache.getHitCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    void fullCacheEvictsEntries() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        JwtTokenValidator filter = new JwtTokenValidator(jwtUtils, cache, new AuthorityRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, filter(filter, createToken()).getStatus());
+        }
+
+        assertEquals(3, cache.getMissCount());
+        assertTrue(cache.getEvictionCount() >= 1);
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void revokedTokenIsNotServedFromCache() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1_000);
+        TokenDenylist denylist = new TokenDenylist(100, 0.01);
+        JwtTokenValidator filter = new JwtTokenValidator(jwtUtils, cache, new AuthorityRegistry(),
+                SecurityMetrics.noop(), null, denylist);
+        String token = createToken();
+
+        assertEquals(200, filter(filter, token).getStatus());
+        DecodedJWT decoded = JWT.decode(token);
+        denylist.revoke(decoded.getId(), decoded.getExpiresAt().getTime());
+
+        assertEquals(401, filter(filter, token).getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, cache.getHitCount()); // Estaba en caché y aun así se rechazó
+    }
+
+    @Test
+    void expiredTokenIsNotServedFromCache() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1_000);
+        JwtTokenValidator filter = new JwtTokenValidator(jwtUtils, cache, new AuthorityRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "accessTokenTtlMillis", 2000L);
+        String token = createToken();
+        long expiresAt = JWT.decode(token).getExpiresAt().getTime();
+
+        assertEquals(200, filter(filter, token).getStatus());
+        while (System.currentTimeMillis() <= expiresAt) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(401, filter(filter, token).getStatus());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    private String createToken() {
+        return jwtUtils.createToken(new UsernamePasswordAuthenticationToken(
+                "Duzz", null, AuthorityUtils.createAuthorityList("ROLE_DEVELOPER", "READ", "REFACTOR")));
+    }
+
+    private MockHttpServletResponse filter(JwtTokenValidator filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/method/patch");
+        request.addHeader(HttpHeaders.PROXY_AUTHORIZATION, "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,83 @@
+package com.app.config.Jfr;
+
+import com.app.util.JWTUtils;
+import com.app.util.JwtKeyRing;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los eventos JFR de autenticación vienen apagados y, al activarlos, llevan outcome y hash del username.
+ */
+class AuthEventTests {
+
+    private JWTUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", new JwtKeyRing(
+                "3629555f0a4fd3c7916a247b548671c078717483a2e6d0a524daeb40d5b622b2", "k1", "", 1800000));
+        ReflectionTestUtils.setField(jwtUtils, "userGenerator", "DUZZJWT-BACKEND");
+    }
+
+    @Test
+    void eventsAreDisabledByDefault() {
+        FlightRecorder.register(TokenCreateEvent.class);
+        EventType type = EventType.getEventType(TokenCreateEvent.class);
+        assertFalse(type.isEnabled());
+    }
+
+    @Test
+    void enabledEventsCarryOutcomeAndUsernameHash() throws Exception {
+        Path file = Files.createTempFile("auth-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.app.security.TokenCreate");
+            recording.enable("com.app.security.TokenValidate");
+            recording.start();
+
+            String token = jwtUtils.createToken(new UsernamePasswordAuthenticationToken(
+                    "Duzz", null, AuthorityUtils.createAuthorityList("ROLE_DEVELOPER", "READ")));
+            jwtUtils.validateToken(token);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.deleteIfExists(file);
+
+        RecordedEvent created = single(events, "com.app.security.TokenCreate");
+        RecordedEvent validated = single(events, "com.app.security.TokenValidate");
+        assertEquals("CREATED", created.getString("outcome"));
+        assertEquals("VALID", validated.getString("outcome"));
+        assertEquals(AuthEvent.hash("Duzz"), created.getString("usernameHash"));
+        assertEquals(created.getString("usernameHash"), validated.getString("usernameHash"));
+        assertNotEquals("Duzz", created.getString("usernameHash"));
+        assertTrue(created.getDuration().toNanos() > 0);
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.config.Password;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BoundedPasswordEncoder: con el pool ocupado y la cola llena se rechaza al momento con Retry-After.
+ */
+class BoundedPasswordEncoderTests {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // Encoder que se queda calculando hasta que el test lo suelta
+    private final PasswordEncoder blocking = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 10_000L, 3L);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        // Un hilo calculando y uno esperando en la cola
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("1234", "1234"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("1234", "1234"));
+        while (encoder.getQueueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        PasswordHashingOverloadedException exception = assertThrows(PasswordHashingOverloadedException.class,
+                () -> encoder.matches("1234", "1234"));
+        assertEquals(3L, exception.getRetryAfterSeconds());
+        assertEquals(1, encoder.getRejectedCount());
+
+        // Los que ya estaban dentro terminan con normalidad
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsWhenWaitTimesOut() throws Exception {
+        BoundedPasswordEncoder impatient = new BoundedPasswordEncoder(blocking, 1, 1, 50L, 1L);
+        try {
+            assertThrows(PasswordHashingOverloadedException.class, () -> impatient.matches("1234", "1234"));
+            assertEquals(1, impatient.getRejectedCount());
+        } finally {
+            impatient.shutdown();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.app.config.Password;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CalibratedBCryptPasswordEncoder: solo se re-hashea hacia un coste mayor, nunca hacia uno menor.
+ */
+class CalibratedBCryptPasswordEncoderTests {
+
+    @Test
+    void upgradesOnlyLowerCost() {
+        String cost4 = new BCryptPasswordEncoder(4).encode("1234");
+        String cost5 = new BCryptPasswordEncoder(5).encode("1234");
+
+        CalibratedBCryptPasswordEncoder strength5 = new CalibratedBCryptPasswordEncoder(5);
+        assertTrue(strength5.upgradeEncoding(cost4));
+        assertFalse(strength5.upgradeEncoding(cost5));
+
+        // Un nodo calibrado por debajo no devuelve el hash al coste anterior
+        CalibratedBCryptPasswordEncoder strength4 = new CalibratedBCryptPasswordEncoder(4);
+        assertFalse(strength4.upgradeEncoding(cost5));
+        assertFalse(strength4.upgradeEncoding(cost4));
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.config.Throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TokenBuckets: ráfaga, recarga y memoria acotada, con un reloj controlado por el test.
+ */
+class TokenBucketsTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void allowsBurstThenRejectsUntilRefill() {
+        TokenBuckets buckets = new TokenBuckets(3, SECOND, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, buckets.tryAcquire("Duzz"));
+        }
+        long wait = buckets.tryAcquire("Duzz");
+        assertEquals(SECOND, wait);
+        assertEquals(1, buckets.getRejectedCount());
+
+        // Otra clave tiene su propio bucket
+        assertEquals(0L, buckets.tryAcquire("Noe"));
+
+        // Pasado el tiempo indicado vuelve a haber exactamente un token
+        now.addAndGet(wait);
+        assertEquals(0L, buckets.tryAcquire("Duzz"));
+        assertTrue(buckets.tryAcquire("Duzz") > 0L);
+    }
+
+    @Test
+    void evictsIdleBucketsAndStaysBounded() {
+        TokenBuckets buckets = new TokenBuckets(2, SECOND, 10, now::get);
+
+        for (int i = 0; i < 25; i++) {
+            buckets.tryAcquire("ip-" + i);
+        }
+        assertTrue(buckets.size() <= 10);
+
+        // Tras recargarse por completo ningún bucket aporta nada
+        now.addAndGet(2 * SECOND);
+        buckets.evictIdle();
+        assertEquals(0, buckets.size());
+    }
+
+    @Test
+    void fullMapAdmitsNewKeysAndKeepsThrottledBucket() {
+        TokenBuckets buckets = new TokenBuckets(2, SECOND, 10, now::get);
+
+        // El atacante agota su bucket
+        buckets.tryAcquire("attacker");
+        buckets.tryAcquire("attacker");
+        assertTrue(buckets.tryAcquire("attacker") > 0L);
+
+        // Llena el mapa con claves inventadas (un token consumido cada una)
+        for (int i = 0; i < 9; i++) {
+            assertEquals(0L, buckets.tryAcquire("ip-" + i));
+        }
+        assertEquals(10, buckets.size());
+
+        // Un usuario legítimo sin bucket entra: se libera el bucket menos limitado, no el del atacante
+        assertEquals(0L, buckets.tryAcquire("legit"));
+        assertTrue(buckets.size() <= 10);
+        assertTrue(buckets.tryAcquire("attacker") > 0L);
+
+        // Entre barridos, otra clave nueva sin sitio se rechaza; en el siguiente intervalo vuelve a entrar
+        while (buckets.size() < 10) {
+            buckets.tryAcquire("filler-" + buckets.size());
+        }
+        assertTrue(buckets.tryAcquire("late") > 0L);
+        now.addAndGet(SECOND / 2);
+        assertTrue(buckets.tryAcquire("late") > 0L);
+        now.addAndGet(SECOND / 2);
+        assertEquals(0L, buckets.tryAcquire("late"));
+
+        // El atacante sigue con su bucket: en un segundo solo recuperó un token, no la ráfaga entera
+        assertEquals(0L, buckets.tryAcquire("attacker"));
+        assertTrue(buckets.tryAcquire("attacker") > 0L);
+    }
+}
@@ -0,0 +1,269 @@
+package com.app.perf;
+
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ================================================
+ * LoadDriver
+ * ================================================
+ *
+ * Generador de carga HTTP compartido por LoadTests y ThreadModeComparisonTests.
+ *
+ * Flujo:
+ * 1. Cada hilo hace login con un usuario DEVELOPER de los datos de carga y guarda su JWT.
+ * 2. Calentamiento sin medir.
+ * 3. Durante la medida cada hilo elige una operación según la mezcla
+ *    (log-in, sing-up, POST /method/post, PATCH /method/patch) y mide su latencia.
+ *
+ * Los 503 (pool de hashing saturado) se cuentan como error; los demás 5xx como error de servidor.
+ */
+final class LoadDriver {
+
+    private static final Pattern JWT_FIELD = Pattern.compile("\"jwt\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final int port;
+    private final int concurrency;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final String mix;
+    private final String password;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadDriver(int port, int concurrency, int warmupSeconds, int durationSeconds, String mix, String password) {
+        this.port = port;
+        this.concurrency = concurrency;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.mix = mix;
+        this.password = password;
+    }
+
+    /**
+     * Ejecuta la carga con un hilo por usuario (repartidos por turnos) y junta las muestras por operación.
+     */
+    Map<String, Samples> run(List<String> developers) throws Exception {
+        List<Operation> operations = parseMix(mix);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<String, Samples>>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                String username = developers.get(i % developers.size());
+                workers.add(executor.submit(() -> runWorker(username, operations)));
+            }
+
+            Map<String, Samples> total = new LinkedHashMap<>();
+            for (Future<Map<String, Samples>> worker : workers) {
+                worker.get().forEach((endpoint, samples) ->
+                        total.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Un hilo de carga: login, calentamiento y medida
+    private Map<String, Samples> runWorker(String username, List<Operation> operations) throws Exception {
+        String token = login(username).token();
+        if (token == null) {
+            throw new IllegalStateException("No se pudo hacer login con " + username);
+        }
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        while (System.nanoTime() < warmupEnd) {
+            execute(pick(operations), username, token);
+        }
+
+        Map<String, Samples> samples = new LinkedHashMap<>();
+        long end = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        while (System.nanoTime() < end) {
+            Operation operation = pick(operations);
+            long start = System.nanoTime();
+            int status = execute(operation, username, token);
+            samples.computeIfAbsent(operation.endpoint(), key -> new Samples()).add(System.nanoTime() - start, status);
+        }
+        return samples;
+    }
+
+    private int execute(Operation operation, String username, String token) throws Exception {
+        return switch (operation.endpoint()) {
+            case "log-in" -> login(username).status();
+            case "sing-up" -> send(post("/auth/sing-up", """
+                    {"username":"load-%s","password":"%s","roleRequest":{"roleListName":["USER"]}}"""
+                    .formatted(UUID.randomUUID(), password))).statusCode();
+            case "post" -> send(authorized("/method/post", token)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build()).statusCode();
+            case "patch" -> send(authorized("/method/patch", token)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build()).statusCode();
+            default -> throw new IllegalArgumentException("Operación desconocida: " + operation.endpoint());
+        };
+    }
+
+    private LoginResult login(String username) throws Exception {
+        HttpResponse<String> response = send(post("/auth/log-in", """
+                {"username":"%s","password":"%s"}""".formatted(username, password)));
+        Matcher matcher = JWT_FIELD.matcher(response.body());
+        return new LoginResult(response.statusCode(), matcher.find() ? matcher.group(1) : null);
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.PROXY_AUTHORIZATION, "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Usuarios de PerfDataSeeder con rol DEVELOPER (pueden usar /method/post y /method/patch).
+     */
+    static List<String> developerUsernames(int seededUsers, String seededRoles, int count) {
+        List<String> roles = Arrays.stream(seededRoles.split(",")).map(String::trim).toList();
+        int developerIndex = roles.indexOf("DEVELOPER");
+        if (developerIndex < 0) {
+            throw new IllegalStateException("perf.seed.roles debe incluir DEVELOPER");
+        }
+        List<String> usernames = new ArrayList<>();
+        for (int i = developerIndex; i < seededUsers && usernames.size() < count; i += roles.size()) {
+            usernames.add(PerfDataSeeder.USERNAME_PREFIX + i);
+        }
+        return usernames;
+    }
+
+    /**
+     * Imprime por endpoint: peticiones, errores, throughput y latencia p50/p99/p999.
+     */
+    void report(String title, Map<String, Samples> total) {
+        System.out.printf("%n%s: %d hilos, %d s medidos, mezcla %s%n", title, concurrency, durationSeconds, mix);
+        System.out.printf("%-10s %9s %8s %10s %10s %10s %10s%n",
+                "endpoint", "peticiones", "errores", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        total.forEach((endpoint, samples) -> {
+            long[] latencies = samples.sortedLatencies();
+            System.out.printf("%-10s %9d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    endpoint, latencies.length, samples.errors,
+                    latencies.length / (double) durationSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+        });
+    }
+
+    private static List<Operation> parseMix(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        int cumulative = 0;
+        for (String entry : mix.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            cumulative += Integer.parseInt(entry.substring(separator + 1).trim());
+            operations.add(new Operation(entry.substring(0, separator).trim(), cumulative));
+        }
+        return operations;
+    }
+
+    private static Operation pick(List<Operation> operations) {
+        int total = operations.get(operations.size() - 1).cumulativeWeight();
+        int value = ThreadLocalRandom.current().nextInt(total);
+        for (Operation operation : operations) {
+            if (value < operation.cumulativeWeight()) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Operation(String endpoint, int cumulativeWeight) {
+    }
+
+    private record LoginResult(int status, String token) {
+    }
+
+    /**
+     * Latencias de un endpoint; cada hilo tiene las suyas y se juntan al final.
+     */
+    static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private long serverErrors;
+
+        void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (status >= 400) {
+                errors++;
+            }
+            if (status >= 500 && status != 503) {
+                serverErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], 200);
+            }
+            errors += other.errors;
+            serverErrors += other.serverErrors;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        long serverErrors() {
+            return serverErrors;
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.app.perf;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ================================================
+ * LoadTests
+ * ================================================
+ *
+ * Prueba de carga de extremo a extremo con el perfil "perf" (H2 + PerfDataSeeder).
+ * Solo se ejecuta con: mvn -Pperf test
+ *
+ * Flujo (LoadDriver):
+ * 1. Cada hilo hace login con un usuario DEVELOPER de los datos de carga y guarda su JWT.
+ * 2. Calentamiento (perf.load.warmup-seconds) sin medir.
+ * 3. Durante perf.load.duration-seconds cada hilo elige una operación según perf.load.mix
+ *    (log-in, sing-up, POST /method/post, PATCH /method/patch) y mide su latencia.
+ * 4. Se imprime por endpoint: peticiones, errores, throughput y latencia p50/p99/p999.
+ *
+ * Los 503 (pool de hashing saturado) se cuentan como error pero no hacen fallar la prueba;
+ * cualquier otro 5xx sí.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("perf")
+class LoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${perf.load.concurrency:32}")
+    private int concurrency;
+
+    @Value("${perf.load.warmup-seconds:5}")
+    private int warmupSeconds;
+
+    @Value("${perf.load.duration-seconds:30}")
+    private int durationSeconds;
+
+    @Value("${perf.load.mix:log-in:10,sing-up:2,post:44,patch:44}")
+    private String mix;
+
+    @Value("${perf.seed.users:10000}")
+    private int seededUsers;
+
+    @Value("${perf.seed.password:perf-password}")
+    private String seededPassword;
+
+    @Value("${perf.seed.roles:DEVELOPER,ADMIN,USER,INVITED}")
+    private String seededRoles;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        LoadDriver driver = new LoadDriver(port, concurrency, warmupSeconds, durationSeconds, mix, seededPassword);
+        Map<String, LoadDriver.Samples> total =
+                driver.run(LoadDriver.developerUsernames(seededUsers, seededRoles, concurrency));
+
+        driver.report("Carga", total);
+
+        long serverErrors = total.values().stream().mapToLong(LoadDriver.Samples::serverErrors).sum();
+        assertEquals(0, serverErrors, "respuestas 5xx distintas de 503");
+        assertTrue(total.values().stream().mapToInt(LoadDriver.Samples::size).sum() > 0);
+    }
+}
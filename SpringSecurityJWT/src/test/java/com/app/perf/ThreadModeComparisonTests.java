@@ -0,0 +1,100 @@
+package com.app.perf;
+
+import com.app.SpringSecurityJwtApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ================================================
+ * ThreadModeComparisonTests
+ * ================================================
+ *
+ * Compara hilos de plataforma y hilos virtuales con la misma carga mixta
+ * (logins con BCrypt + /method/* que solo validan el JWT).
+ * Solo se ejecuta con: mvn -Pperf,virtual-threads test (JDK 21+)
+ *
+ * Flujo:
+ * 1. Arranca la aplicación con el perfil perf y hilos de plataforma, lanza la carga y la cierra.
+ * 2. Repite con el perfil virtual-threads (application-virtual-threads.properties).
+ * 3. Imprime ambas tablas y un resumen de throughput y p99 por endpoint.
+ *
+ * Cada arranque usa su propia base H2 en memoria. La concurrencia (perf.compare.concurrency)
+ * está por encima de los 200 hilos de Tomcat para que se note el límite del pool de plataforma.
+ */
+@Tag("perf")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class ThreadModeComparisonTests {
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Map<String, Map<String, LoadDriver.Samples>> results = new LinkedHashMap<>();
+
+        for (String mode : new String[]{"platform", "virtual"}) {
+            boolean virtual = mode.equals("virtual");
+            try (ConfigurableApplicationContext context = start(mode, virtual)) {
+                Environment environment = context.getEnvironment();
+                int concurrency = environment.getProperty("perf.compare.concurrency", Integer.class, 256);
+                LoadDriver driver = new LoadDriver(
+                        ((WebServerApplicationContext) context).getWebServer().getPort(),
+                        concurrency,
+                        environment.getProperty("perf.load.warmup-seconds", Integer.class, 5),
+                        environment.getProperty("perf.load.duration-seconds", Integer.class, 30),
+                        environment.getProperty("perf.compare.mix", "log-in:30,post:35,patch:35"),
+                        environment.getProperty("perf.seed.password", "perf-password"));
+
+                Map<String, LoadDriver.Samples> total = driver.run(LoadDriver.developerUsernames(
+                        environment.getProperty("perf.seed.users", Integer.class, 10000),
+                        environment.getProperty("perf.seed.roles", "DEVELOPER,ADMIN,USER,INVITED"),
+                        concurrency));
+                driver.report("Hilos " + mode, total);
+                results.put(mode, total);
+            }
+        }
+
+        summary(results);
+
+        for (Map<String, LoadDriver.Samples> total : results.values()) {
+            long serverErrors = total.values().stream().mapToLong(LoadDriver.Samples::serverErrors).sum();
+            assertEquals(0, serverErrors, "respuestas 5xx distintas de 503");
+            assertTrue(total.values().stream().mapToInt(LoadDriver.Samples::size).sum() > 0);
+        }
+    }
+
+    // Argumentos de línea de comandos: pisan spring.profiles.include que añade el perfil de Maven
+    private static ConfigurableApplicationContext start(String mode, boolean virtual) {
+        return new SpringApplicationBuilder(SpringSecurityJwtApplication.class).run(
+                "--spring.profiles.active=perf",
+                "--spring.profiles.include=" + (virtual ? "virtual-threads" : ""),
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:compare-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--server.port=0");
+    }
+
+    private static void summary(Map<String, Map<String, LoadDriver.Samples>> results) {
+        Map<String, LoadDriver.Samples> platform = results.get("platform");
+        Map<String, LoadDriver.Samples> virtual = results.get("virtual");
+        System.out.printf("%nPlataforma vs virtuales%n");
+        System.out.printf("%-10s %14s %14s %14s %14s%n",
+                "endpoint", "peticiones pl.", "peticiones vt.", "p99 ms pl.", "p99 ms vt.");
+        platform.forEach((endpoint, samples) -> {
+            LoadDriver.Samples other = virtual.get(endpoint);
+            long[] platformLatencies = samples.sortedLatencies();
+            long[] virtualLatencies = other != null ? other.sortedLatencies() : new long[0];
+            System.out.printf("%-10s %14d %14d %14.2f %14.2f%n", endpoint,
+                    platformLatencies.length, virtualLatencies.length,
+                    LoadDriver.percentile(platformLatencies, 0.99), LoadDriver.percentile(virtualLatencies, 0.99));
+        });
+    }
+}
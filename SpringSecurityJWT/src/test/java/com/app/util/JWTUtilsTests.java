@@ -0,0 +1,105 @@
+package com.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JWTUtils.verify: la firma se comprueba solo con la clave del kid, y cada rechazo tiene su motivo.
+ */
+class JWTUtilsTests {
+
+    private static final String SECRET = "3629555f0a4fd3c7916a247b548671c078717483a2e6d0a524daeb40d5b622b2";
+    private static final String OTHER_SECRET = "otro-secreto-de-pruebas-con-longitud-suficiente";
+    private static final String ISSUER = "DUZZJWT-BACKEND";
+
+    private final JWTUtils verifier = jwtUtils(new JwtKeyRing(SECRET, "k1", "k0:" + OTHER_SECRET, 1800000), ISSUER);
+
+    @Test
+    void acceptsTokensOfCurrentAndRetiredKeys() {
+        assertEquals(TokenValidationResult.Outcome.VALID, verifier.verify(tokenFrom(SECRET, "k1", ISSUER)).getOutcome());
+        assertEquals(TokenValidationResult.Outcome.VALID, verifier.verify(tokenFrom(OTHER_SECRET, "k0", ISSUER)).getOutcome());
+    }
+
+    @Test
+    void rejectsUnknownOrMismatchedKid() {
+        // kid que no está en el anillo
+        assertEquals(TokenValidationResult.Outcome.BAD_SIGNATURE, verifier.verify(tokenFrom(SECRET, "k9", ISSUER)).getOutcome());
+        // Firmado con la clave de k0 pero declarando k1: no se prueba ninguna otra clave
+        assertEquals(TokenValidationResult.Outcome.BAD_SIGNATURE, verifier.verify(tokenFrom(OTHER_SECRET, "k1", ISSUER)).getOutcome());
+    }
+
+    @Test
+    void rejectsRetiredKey() {
+        // retired-ttl negativo: k0 ya no verifica
+        JWTUtils expiredRing = jwtUtils(new JwtKeyRing(SECRET, "k1", "k0:" + OTHER_SECRET, -1), ISSUER);
+        assertEquals(TokenValidationResult.Outcome.BAD_SIGNATURE, expiredRing.verify(tokenFrom(OTHER_SECRET, "k0", ISSUER)).getOutcome());
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = tokenFrom(SECRET, "k1", ISSUER);
+        char last = token.charAt(token.length() - 2);
+        String tampered = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+        assertEquals(TokenValidationResult.Outcome.BAD_SIGNATURE, verifier.verify(tampered).getOutcome());
+    }
+
+    @Test
+    void rejectsWrongIssuerAndExpiredToken() {
+        assertEquals(TokenValidationResult.Outcome.INVALID_CLAIMS, verifier.verify(tokenFrom(SECRET, "k1", "OTRO")).getOutcome());
+
+        JWTUtils issuer = jwtUtils(new JwtKeyRing(SECRET, "k1", "", 1800000), ISSUER);
+        ReflectionTestUtils.setField(issuer, "accessTokenTtlMillis", -1000L);
+        assertEquals(TokenValidationResult.Outcome.EXPIRED, verifier.verify(issuer.createToken(authentication())).getOutcome());
+    }
+
+    @Test
+    void rejectsGarbageHeaderBeforeSignature() {
+        String token = tokenFrom(SECRET, "k1", ISSUER);
+        String body = token.substring(token.indexOf('.'));
+
+        // Header que no es JSON ("xx") o con otra forma: MALFORMED sin llegar al HMAC
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("xx") + body).getOutcome());
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("{\"alg\":\"HS256\" \"kid\":\"k1\"}") + body).getOutcome());
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("{\"alg\":\"HS256\",\"kid\":\"k\\u0031\"}") + body).getOutcome());
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("{\"alg\":\"HS256\",\"kid\":\"k1\"") + body).getOutcome());
+    }
+
+    @Test
+    void rejectsAlgorithmOtherThanHs256() {
+        String token = tokenFrom(SECRET, "k1", ISSUER);
+        String body = token.substring(token.indexOf('.'));
+
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("{\"alg\":\"none\",\"kid\":\"k1\"}") + body).getOutcome());
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("{\"alg\":\"HS512\",\"kid\":\"k1\"}") + body).getOutcome());
+        assertEquals(TokenValidationResult.Outcome.MALFORMED, verifier.verify(header("{\"kid\":\"k1\",\"typ\":\"JWT\"}") + body).getOutcome());
+        // Mismo header que emitimos pero reescrito: ya no cuadra con la firma
+        assertEquals(TokenValidationResult.Outcome.BAD_SIGNATURE,
+                verifier.verify(header(" { \"alg\" : \"HS256\" , \"kid\" : \"k1\" } ") + body).getOutcome());
+    }
+
+    private static String header(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String tokenFrom(String secret, String kid, String issuer) {
+        return jwtUtils(new JwtKeyRing(secret, kid, "", 1800000), issuer).createToken(authentication());
+    }
+
+    private static JWTUtils jwtUtils(JwtKeyRing keyRing, String issuer) {
+        JWTUtils jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtils, "userGenerator", issuer);
+        return jwtUtils;
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication() {
+        return new UsernamePasswordAuthenticationToken("Duzz", null, AuthorityUtils.createAuthorityList("ROLE_DEVELOPER", "READ"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TokenDenylist: revocación hasta el "exp", purga de los caducados y falsos positivos acotados.
+ */
+class TokenDenylistTests {
+
+    @Test
+    void revokedUntilExpiryThenPurged() {
+        TokenDenylist denylist = new TokenDenylist(100, 0.01);
+        long now = System.currentTimeMillis();
+        String live = UUID.randomUUID().toString();
+        String expiring = UUID.randomUUID().toString();
+
+        assertFalse(denylist.isRevoked(live));
+        denylist.revoke(live, now + 60_000);
+        denylist.revoke(expiring, now + 50);
+        assertTrue(denylist.isRevoked(live));
+        assertTrue(denylist.isRevoked(expiring));
+        assertFalse(denylist.isRevoked(UUID.randomUUID().toString()));
+        assertFalse(denylist.isRevoked(null));
+
+        // Un token ya caducado no se guarda
+        denylist.revoke(UUID.randomUUID().toString(), now - 1);
+        assertEquals(2, denylist.size());
+
+        denylist.purgeExpired(); // Aún no caducó ninguno
+        assertEquals(2, denylist.size());
+        while (System.currentTimeMillis() <= now + 50) {
+            Thread.onSpinWait();
+        }
+        denylist.purgeExpired();
+        assertEquals(1, denylist.size());
+        assertEquals(1, denylist.getPurgedCount());
+        assertTrue(denylist.isRevoked(live)); // El filtro reconstruido conserva los vigentes
+        assertFalse(denylist.isRevoked(expiring));
+    }
+
+    @Test
+    void growsPastExpectedEntriesWithoutLosingRevocations() {
+        TokenDenylist denylist = new TokenDenylist(100, 0.01);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        String[] revoked = new String[1_000];
+        for (int i = 0; i < revoked.length; i++) {
+            revoked[i] = UUID.randomUUID().toString();
+            denylist.revoke(revoked[i], expiresAt);
+        }
+        for (String jti : revoked) {
+            assertTrue(denylist.isRevoked(jti));
+        }
+
+        // Con el filtro redimensionado los falsos positivos siguen cerca del 1 % previsto
+        int lookups = 100_000;
+        for (int i = 0; i < lookups; i++) {
+            assertFalse(denylist.isRevoked(UUID.randomUUID().toString()));
+        }
+        assertTrue(denylist.getFalsePositiveCount() < lookups / 50, "falsos positivos: " + denylist.getFalsePositiveCount());
+    }
+}